@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.BookingStatusEnum;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoForBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkData {
+    static final long OWNER_ID = 1L;
+    static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 1, 12, 0);
+
+    private static final long SEED = 42L;
+    private static final BookingStatusEnum[] STATUSES = BookingStatusEnum.values();
+
+    private BenchmarkData() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            users.add(new User(i, "user" + i, "user" + i + "@mail.ru"));
+        }
+        return users;
+    }
+
+    static List<Item> items(int count) {
+        Random random = new Random(SEED);
+        List<Item> items = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            items.add(new Item(i, "Дрель " + i, "Аккумуляторная дрель номер " + i, random.nextBoolean(), OWNER_ID, null));
+        }
+        return items;
+    }
+
+    static List<Booking> bookings(int count) {
+        Random random = new Random(SEED);
+        List<Item> items = items(count);
+        List<User> users = users(count);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = NOW.plusHours(random.nextInt(10_000) - 5_000);
+            bookings.add(new Booking((long) i + 1, start, start.plusHours(1 + random.nextInt(72)),
+                    items.get(i), users.get(random.nextInt(count)), STATUSES[random.nextInt(STATUSES.length)]));
+        }
+        return bookings;
+    }
+
+    static List<ItemDtoForBooking> itemsForBooking(int count) {
+        Random random = new Random(SEED);
+        List<ItemDtoForBooking> items = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            int commentCount = random.nextInt(4);
+            List<CommentDto> comments = new ArrayList<>(commentCount);
+            for (int j = 0; j < commentCount; j++) {
+                comments.add(new CommentDto(i * 10 + j, "Отличная вещь", "user" + j, NOW.minusDays(j)));
+            }
+            items.add(new ItemDtoForBooking(i, "Дрель " + i, "Аккумуляторная дрель номер " + i, true, OWNER_ID,
+                    BookingDto.builder().id(i * 2).bookerId(2L).build(),
+                    BookingDto.builder().id(i * 2 + 1).bookerId(3L).build(),
+                    comments));
+        }
+        return items;
+    }
+}
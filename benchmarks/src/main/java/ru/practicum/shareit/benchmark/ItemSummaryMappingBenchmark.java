@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatusEnum;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.ItemBookingSummaryStore;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDtoForBooking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mapping cost of getItems on the test profile's H2 database with one last and one next booking per item, so the
+ * queries stay small next to the mapping: warm reads cached summaries, cold builds them from the rows. The window query
+ * over many bookings per item is measured by {@link OwnerItemsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ItemSummaryMappingBenchmark {
+    private static final long LAST_BOOKER_ID = BenchmarkData.OWNER_ID + 1;
+    private static final long NEXT_BOOKER_ID = BenchmarkData.OWNER_ID + 2;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private ItemServiceImpl service;
+    private List<Long> itemIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--logging.level.root=WARN", "--spring.main.banner-mode=off");
+        List<Item> items = BenchmarkData.items(size);
+        itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        seed(context.getBean(JdbcTemplate.class), items);
+
+        bookingRepository = context.getBean(BookingRepository.class);
+        service = context.getBean(ItemServiceImpl.class);
+        service.getItems(BenchmarkData.OWNER_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoForBooking> warm() {
+        return service.getItems(BenchmarkData.OWNER_ID);
+    }
+
+    @Benchmark
+    public Map<Long, ItemBookingSummary> cold() {
+        return new ItemBookingSummaryStore(bookingRepository).getAll(itemIds);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, List<Item> items) {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = BenchmarkData.OWNER_ID; id <= NEXT_BOOKER_ID; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+
+        List<Object[]> itemRows = new ArrayList<>(items.size());
+        for (Item item : items) {
+            itemRows.add(new Object[]{item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getOwner()});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id) values (?, ?, ?, ?, ?)",
+                itemRows);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookings = new ArrayList<>(items.size() * 2);
+        for (Item item : items) {
+            bookings.add(booking(item.getId() * 2, now.minusDays(2), now.minusDays(1), item.getId(), LAST_BOOKER_ID));
+            bookings.add(booking(item.getId() * 2 + 1, now.plusDays(30), now.plusDays(31), item.getId(), NEXT_BOOKER_ID));
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+    }
+
+    private static Object[] booking(long id, LocalDateTime start, LocalDateTime end, long itemId, long bookerId) {
+        return new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId,
+                BookingStatusEnum.APPROVED.name()};
+    }
+}
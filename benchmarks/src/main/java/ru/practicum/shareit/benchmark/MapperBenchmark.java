@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemMapper.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class MapperBenchmark {
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        bookings = BenchmarkData.bookings(size);
+        items = BenchmarkData.items(size);
+        users = BenchmarkData.users(size);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> bookingsToDto() {
+        return BookingMapper.mapToBookingDto(bookings);
+    }
+
+    @Benchmark
+    public void itemsToDto(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.toItemDto(item));
+        }
+    }
+
+    @Benchmark
+    public void itemsToDtoForBooking(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.toDtoItemForBooking(item));
+        }
+    }
+
+    @Benchmark
+    public void itemsRoundTrip(Blackhole blackhole) {
+        for (Item item : items) {
+            ItemDto itemDto = ItemMapper.toItemDto(item);
+            blackhole.consume(ItemMapper.toDtoItem(itemDto, itemDto.getOwner()));
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> usersToDto() {
+        return UserMapper.mapToUserDto(users);
+    }
+
+    @Benchmark
+    public void usersRoundTrip(Blackhole blackhole) {
+        for (User user : users) {
+            blackhole.consume(UserMapper.toDtoUser(UserMapper.toUserDto(user)));
+        }
+    }
+}
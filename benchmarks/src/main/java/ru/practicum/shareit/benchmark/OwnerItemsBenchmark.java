@@ -0,0 +1,126 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingStatusEnum;
+import ru.practicum.shareit.item.ItemBookingSummaryStore;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDtoForBooking;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getItems for an owner listing on the test profile's H2 database, through the real repositories: cold runs the
+ * last/next window query for every item, warm reads the summaries it cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class OwnerItemsBenchmark {
+    private static final int BOOKERS = 10;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"100"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemServiceImpl itemService;
+    private ItemBookingSummaryStore summaryStore;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--logging.level.root=WARN", "--spring.main.banner-mode=off");
+        seed(context.getBean(JdbcTemplate.class));
+        itemService = context.getBean(ItemServiceImpl.class);
+        summaryStore = context.getBean(ItemBookingSummaryStore.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoForBooking> warm() {
+        return itemService.getItems(BenchmarkData.OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemDtoForBooking> cold(EvictedSummaries evicted) {
+        return itemService.getItems(BenchmarkData.OWNER_ID);
+    }
+
+    /**
+     * Evicting takes microseconds against the window query it forces, so the per-invocation setup does not skew the
+     * result.
+     */
+    @State(Scope.Thread)
+    public static class EvictedSummaries {
+        @Setup(Level.Invocation)
+        public void evict(OwnerItemsBenchmark benchmark) {
+            for (long itemId = 1; itemId <= benchmark.items; itemId++) {
+                benchmark.summaryStore.evict(itemId);
+            }
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = BenchmarkData.OWNER_ID; id <= BenchmarkData.OWNER_ID + BOOKERS; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            itemRows.add(new Object[]{id, "Дрель " + id, "Аккумуляторная дрель номер " + id, true, BenchmarkData.OWNER_ID});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id) values (?, ?, ?, ?, ?)",
+                itemRows);
+
+        // Daily bookings centred on now, so every item has both a last and a next one; every tenth is rejected
+        // and every tenth waiting, so the query has to filter by status
+        LocalDateTime firstStart = LocalDateTime.now().minusDays(bookingsPerItem / 2);
+        List<Object[]> bookings = new ArrayList<>(items * bookingsPerItem);
+        long bookingId = 1;
+        for (long itemId = 1; itemId <= items; itemId++) {
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = firstStart.plusDays(i);
+                BookingStatusEnum status = i % 10 == 0 ? BookingStatusEnum.REJECTED
+                        : i % 10 == 1 ? BookingStatusEnum.WAITING : BookingStatusEnum.APPROVED;
+                bookings.add(new Object[]{bookingId++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)),
+                        itemId, BenchmarkData.OWNER_ID + 1 + bookingId % BOOKERS, status.name()});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+    }
+}
@@ -1,33 +1,56 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory requestFactory,
+                         @Nullable AsyncServerClient asyncClient, RequestCoalescer coalescer, ResponseCache responseCache,
+                         ObjectMapper objectMapper) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                asyncClient,
+                coalescer
         );
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -36,20 +59,40 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public CompletableFuture<ResponseEntity<Object>> getBookingsAfter(long userId, BookingState state, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
+                "size", size
+        );
+        return get("?state={state}&after={after}&size={size}", userId, parameters);
+    }
+
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    // A new booking is WAITING and changes nothing a cached item page shows, so creating one evicts nothing
+    public CompletableFuture<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> bookItems(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId.longValue());
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(Long userId, Long bookingId, Boolean approved) {
+        return patch("/" + bookingId + "?approved=" + approved, userId.longValue())
+                .whenComplete((response, e) -> evictDecided(userId, response, false));
     }
 
-    public ResponseEntity<Object> getByOwner(Long ownerId, BookingState state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions)
+                .whenComplete((response, e) -> evictDecided(userId, response, true));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getByOwner(Long ownerId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -57,4 +100,48 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?from=" + from + "&size=" + size + "&state=" + state.name(), ownerId, parameters);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> getByOwnerAfter(Long ownerId, BookingState state, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
+                "size", size
+        );
+        return get("/owner?state={state}&after={after}&size={size}", ownerId, parameters);
+    }
+
+    /**
+     * Approving or rejecting changes the last and next bookings of the item, so its cached pages are evicted. The item
+     * is taken from the server's answer: the booking itself for a single decision, {@code itemId} of every decision
+     * without an error for a batch. When the answer cannot be read the owner's cached pages are evicted instead.
+     */
+    private void evictDecided(Long userId, @Nullable ResponseEntity<Object> response, boolean batch) {
+        if (response == null) {
+            // The call failed and the decision may still have been applied
+            responseCache.evictUser(userId);
+            return;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return;
+        }
+        try {
+            JsonNode body = objectMapper.readTree((byte[]) response.getBody());
+            List<Long> itemIds = new ArrayList<>();
+            if (batch) {
+                for (JsonNode decision : body) {
+                    if (!decision.hasNonNull("error") && decision.path("itemId").canConvertToLong()) {
+                        itemIds.add(decision.get("itemId").asLong());
+                    }
+                }
+            } else if (body.path("item").path("id").canConvertToLong()) {
+                itemIds.add(body.path("item").path("id").asLong());
+            } else {
+                throw new IOException("В ответе нет предмета букинга");
+            }
+            responseCache.evictItems(itemIds);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Не удалось разобрать ответ на решение по букингу, сброшен кэш пользователя {}", userId, e);
+            responseCache.evictUser(userId);
+        }
+    }
 }
@@ -8,12 +8,17 @@ import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.InvalidStatusException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,51 +26,76 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new InvalidStatusException("Unknown state: " + stateParam));
+        if (after != null) {
+            log.info("Get booking with state {}, userId={}, after={}, size={}", stateParam, userId, after, size);
+            return bookingClient.getBookingsAfter(userId, state, after, size);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable(name = "bookingId") Long bookingId,
                                           @RequestParam(name = "approved") Boolean approved) {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> approveAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @RequestBody @Valid @NotEmpty @Size(max = MAX_BATCH_SIZE) List<BookingDecisionDto> decisions) {
+        log.info("Approve bookings batch of {}, userId={}", decisions.size(), userId);
+        return bookingClient.approveBookings(userId, decisions);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestBody @Valid @NotEmpty @Size(max = MAX_BATCH_SIZE) List<BookItemRequestDto> requestDtos) {
+        log.info("Creating bookings batch of {}, userId={}", requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getBookingsByOwner(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                                      @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
                                                      @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
-                                                     @RequestParam(value = "size", defaultValue = "10", required = false) Integer size) {
+                                                     @RequestParam(value = "size", defaultValue = "10", required = false) Integer size,
+                                                     @RequestParam(value = "after", required = false) String after) {
 
         if (size <= 0 || from < 0) {
             throw new IllegalReceiveException("Неверно указан параметр");
         }
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new InvalidStatusException("Unknown state: " + stateParam));
+        if (after != null) {
+            log.info("Get booking by owner userId={}  with state {}, after={}", userId, state, after);
+            return bookingClient.getByOwnerAfter(userId, state, after, size);
+        }
         log.info("Get booking by owner userId={}  with state {}", userId, state);
         return bookingClient.getByOwner(userId, state, from, size);
     }
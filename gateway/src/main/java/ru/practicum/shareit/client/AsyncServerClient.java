@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends gateway requests with the JDK HttpClient: a single selector thread does the I/O and completions run on a small
+ * fixed pool, so the number of in-flight requests is not bounded by threads.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit-server", name = "mode", havingValue = "async")
+public class AsyncServerClient {
+    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final HttpClientProperties properties;
+
+    @Autowired
+    public AsyncServerClient(ObjectMapper objectMapper, HttpClientProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(executor)
+                .build();
+    }
+
+    public <T> CompletableFuture<ResponseEntity<Object>> send(HttpMethod method, URI uri, HttpHeaders headers, @Nullable T body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(properties.getReadTimeout())
+                .method(method.name(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(toJson(body)));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::toResponseEntity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private ResponseEntity<Object> toResponseEntity(HttpResponse<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        return BaseClient.toGatewayResponse(response.statusCode(), headers, response.body());
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
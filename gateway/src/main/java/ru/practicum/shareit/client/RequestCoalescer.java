@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical GET requests that arrive while one is already on its way to the server share that call instead of
+ * sending their own. Every caller, the one that started the call included, is released with 504 after {@code max-wait},
+ * so a stuck call does not hold them forever.
+ *
+ * <p>Joins, timeouts and waiters per call are recorded per client and normalized URI rather than per key: keys carry
+ * item ids and callers, and tagging by them would create a meter for every distinct request.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final long maxWaitMillis;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    /**
+     * Bumped when a write completes: requests arriving after it must not join a call that may have read the old data.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public RequestCoalescer(RequestCoalescerProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxWaitMillis = properties.getMaxWait().toMillis();
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("shareit.gateway.coalescing.in.flight", inFlight, ConcurrentMap::size);
+    }
+
+    /**
+     * @param key      the expanded request URI and caller; requests with equal keys get the same response
+     * @param tags     client and normalized URI for the metrics, so that their number does not grow with the keys
+     */
+    public CompletableFuture<ResponseEntity<Object>> execute(String key, Tags tags,
+                                                             Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long current = generation.get();
+        Flight started = new Flight(current);
+        Flight flight = inFlight.compute(key, (k, existing) ->
+                existing == null || existing.generation < current ? started : existing);
+        if (flight != started) {
+            flight.waiters.incrementAndGet();
+            counter("shareit.gateway.coalescing.joined", tags).increment();
+            return waitFor(flight, tags);
+        }
+
+        try {
+            call.get().whenComplete((response, e) -> complete(key, started, tags, response, e));
+        } catch (RuntimeException e) {
+            complete(key, started, tags, null, e);
+        }
+        return waitFor(started, tags);
+    }
+
+    public void invalidate() {
+        if (enabled) {
+            generation.incrementAndGet();
+        }
+    }
+
+    private void complete(String key, Flight flight, Tags tags, ResponseEntity<Object> response, Throwable e) {
+        inFlight.remove(key, flight);
+        DistributionSummary.builder("shareit.gateway.coalescing.waiters")
+                .description("Сколько запросов получили ответ одного обращения к серверу")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(flight.waiters.get());
+        if (e != null) {
+            flight.response.completeExceptionally(e);
+        } else {
+            flight.response.complete(response);
+        }
+    }
+
+    // Each caller times out on its own copy, so giving up on a stuck call does not complete it for the others
+    private CompletableFuture<ResponseEntity<Object>> waitFor(Flight flight, Tags tags) {
+        return flight.response.copy()
+                .orTimeout(maxWaitMillis, TimeUnit.MILLISECONDS)
+                .handle((response, e) -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        counter("shareit.gateway.coalescing.timeouts", tags).increment();
+                        log.warn("Сервер не ответил за {} мс, {}", maxWaitMillis, tags);
+                        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                                .body(new ErrorResponse("Сервер не ответил вовремя"));
+                    }
+                    if (cause != null) {
+                        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                    }
+                    return response;
+                });
+    }
+
+    private Counter counter(String name, Tags tags) {
+        return Counter.builder(name)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    @RequiredArgsConstructor
+    private static class Flight {
+        private final long generation;
+        private final CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit-server.coalescing")
+public class RequestCoalescerProperties {
+    private boolean enabled = true;
+    private Duration maxWait = Duration.ofSeconds(5);
+}
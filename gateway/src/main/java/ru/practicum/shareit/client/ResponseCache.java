@@ -0,0 +1,226 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Successful item and search responses, kept in the gateway so that repeated views of an unchanged item do not reach
+ * the server. Entries live for a short TTL and are dropped as soon as the gateway proxies a write that affects them.
+ */
+@Component
+public class ResponseCache {
+    private static final int STRIPES = 64;
+    private static final long SEARCHES = 0L;
+
+    private final boolean enabled;
+    private final Cache<Key, ResponseEntity<Object>> cache;
+    /**
+     * Cached keys grouped by item, by user and (as a single group) by search, so that a write evicts only what it affects
+     * without scanning the whole cache. A key is added after its entry is stored and dropped when the entry leaves.
+     */
+    private final KeyIndex keysByItem = new KeyIndex();
+    private final KeyIndex keysByUser = new KeyIndex();
+    private final KeyIndex searchKeys = new KeyIndex();
+    /**
+     * Bumped by evictions, striped by item, by user and for searches: a response loaded before a write completed is not
+     * stored, otherwise it could bring the old item back right after the write evicted it. Loads of unrelated keys go on
+     * unless they happen to share a stripe.
+     */
+    private final AtomicLongArray itemVersions = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray userVersions = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray searchVersion = new AtomicLongArray(1);
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<Key, ResponseEntity<Object>>() {
+                    @Override
+                    public long expireAfterCreate(Key key, ResponseEntity<Object> value, long currentTime) {
+                        return (key.getItemId() == null ? properties.getSearchTtl() : properties.getItemTtl()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, ResponseEntity<Object> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, ResponseEntity<Object> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .executor(Runnable::run)
+                .removalListener(this::onRemoval)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+    }
+
+    /**
+     * Item page as seen by {@code userId}: the owner gets last and next bookings, other users do not.
+     */
+    public CompletableFuture<ResponseEntity<Object>> getItem(long itemId, @Nullable Long userId, String uri,
+                                                             Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+        return get(new Key(itemId, uri, userId), loader);
+    }
+
+    /**
+     * Search results do not depend on the caller, so they are shared between users.
+     */
+    public CompletableFuture<ResponseEntity<Object>> getSearch(String uri,
+                                                               Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+        return get(new Key(null, uri, null), loader);
+    }
+
+    public void evictItem(long itemId) {
+        evictItems(List.of(itemId));
+    }
+
+    public void evictItems(Collection<Long> itemIds) {
+        if (!enabled) {
+            return;
+        }
+        for (Long itemId : itemIds) {
+            evict(keysByItem, itemVersions, itemId);
+        }
+    }
+
+    public void evictSearches() {
+        if (enabled) {
+            evict(searchKeys, searchVersion, SEARCHES);
+        }
+    }
+
+    public void evictUser(long userId) {
+        if (enabled) {
+            evict(keysByUser, userVersions, userId);
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> get(Key key,
+                                                          Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long loadedAt = version(key);
+        return loader.get().thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful() && version(key) == loadedAt) {
+                cache.put(key, response);
+                index(key);
+            }
+            return response;
+        });
+    }
+
+    private void evict(KeyIndex index, AtomicLongArray versions, long group) {
+        versions.incrementAndGet(stripe(versions, group));
+        Set<Key> keys = index.drain(group);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * Sum of the counters guarding the key: every counter only grows, so the sum changes whenever any of them is bumped.
+     */
+    private long version(Key key) {
+        if (key.getItemId() == null) {
+            return searchVersion.get(0);
+        }
+        long version = itemVersions.get(stripe(itemVersions, key.getItemId()));
+        if (key.getUserId() != null) {
+            version += userVersions.get(stripe(userVersions, key.getUserId()));
+        }
+        return version;
+    }
+
+    private static int stripe(AtomicLongArray versions, long group) {
+        return (int) Math.floorMod(group, (long) versions.length());
+    }
+
+    private void index(Key key) {
+        if (key.getItemId() == null) {
+            searchKeys.add(SEARCHES, key);
+            return;
+        }
+        keysByItem.add(key.getItemId(), key);
+        if (key.getUserId() != null) {
+            keysByUser.add(key.getUserId(), key);
+        }
+    }
+
+    private void onRemoval(@Nullable Key key, @Nullable ResponseEntity<Object> value, RemovalCause cause) {
+        if (key == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        if (key.getItemId() == null) {
+            searchKeys.remove(SEARCHES, key);
+            return;
+        }
+        keysByItem.remove(key.getItemId(), key);
+        if (key.getUserId() != null) {
+            keysByUser.remove(key.getUserId(), key);
+        }
+    }
+
+    private class KeyIndex {
+        private final Map<Long, Set<Key>> groups = new ConcurrentHashMap<>();
+
+        void add(long group, Key key) {
+            groups.compute(group, (id, keys) -> {
+                Set<Key> result = keys == null ? new HashSet<>() : keys;
+                result.add(key);
+                return result;
+            });
+        }
+
+        void remove(long group, Key key) {
+            groups.computeIfPresent(group, (id, keys) -> {
+                // The same key may have been stored again before this notification arrived
+                if (!cache.asMap().containsKey(key)) {
+                    keys.remove(key);
+                }
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+
+        @Nullable
+        Set<Key> drain(long group) {
+            return groups.remove(group);
+        }
+    }
+
+    @Value
+    static class Key {
+        @Nullable
+        Long itemId;
+        String uri;
+        @Nullable
+        Long userId;
+    }
+}
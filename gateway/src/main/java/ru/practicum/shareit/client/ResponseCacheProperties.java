@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    private Duration itemTtl = Duration.ofSeconds(30);
+    private Duration searchTtl = Duration.ofSeconds(10);
+}
@@ -5,57 +5,104 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.comment.CommentDto;
 import ru.practicum.shareit.exception.InvalidStatusException;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory requestFactory,
+                      @Nullable AsyncServerClient asyncClient, RequestCoalescer coalescer, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                asyncClient,
+                coalescer
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createItem(ItemDto itemDto, Long owner) {
-        return post("", owner, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> createItem(ItemDto itemDto, Long owner) {
+        return post("", owner, itemDto)
+                .whenComplete((response, e) -> responseCache.evictSearches());
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto, Long itemId, Long userId) {
-        return patch("/" + itemId, userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> updateItem(ItemDto itemDto, Long itemId, Long userId) {
+        return patch("/" + itemId, userId, itemDto)
+                .whenComplete((response, e) -> {
+                    responseCache.evictItem(itemId);
+                    responseCache.evictSearches();
+                });
     }
 
-    public ResponseEntity<Object> getItem(long itemId, Long ownerId) {
-        return get("/" + itemId, ownerId);
+    public CompletableFuture<ResponseEntity<Object>> getItem(long itemId, Long ownerId) {
+        String path = "/" + itemId;
+        return responseCache.getItem(itemId, ownerId, path, () -> get(path, ownerId));
     }
 
-    public ResponseEntity<Object> deleteItem(long itemId) {
-        return delete("/" + itemId);
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(long itemId) {
+        return delete("/" + itemId)
+                .whenComplete((response, e) -> {
+                    responseCache.evictItem(itemId);
+                    responseCache.evictSearches();
+                });
     }
 
-    public ResponseEntity<Object> getItems(Long ownerId) {
+    public CompletableFuture<ResponseEntity<Object>> getItems(Long ownerId) {
         return get("/", ownerId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-
-        return get("/search?text=" + text);
+    public CompletableFuture<ResponseEntity<Object>> searchItems(String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        String uri = UriComponentsBuilder.fromPath("/search")
+                .queryParam("text", text)
+                .queryParam("from", from)
+                .queryParam("size", size)
+                .encode()
+                .toUriString();
+        return responseCache.getSearch(uri, () -> get("/search?text={text}&from={from}&size={size}", null, parameters));
     }
 
-    public ResponseEntity<Object> addComment(Long itemId, Long userId, CommentDto request) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(Long itemId, Long userId, CommentDto request) {
         if (request.getText().isBlank()) {
             throw new InvalidStatusException("Невозможно оставить пустой коммент");
         }
-        return post("/" + itemId + "/comment", userId, request);
+        return post("/" + itemId + "/comment", userId, request)
+                .whenComplete((response, e) -> responseCache.evictItem(itemId));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.format(DATE_TIME_FORMATTER),
+                "to", to.format(DATE_TIME_FORMATTER)
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 }
@@ -2,14 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.CommentDto;
+import ru.practicum.shareit.exception.InvalidStatusException;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -20,13 +26,13 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@Valid @RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") Long owner) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(@Valid @RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") Long owner) {
         log.info("Creating item {}, owner={}", itemDto, owner);
         return itemClient.createItem(itemDto, owner);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestBody ItemDto itemDto,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@RequestBody ItemDto itemDto,
                                              @PathVariable Long itemId,
                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("update item {},item ID = {}, User Id = {}", itemDto, itemId, userId);
@@ -34,35 +40,48 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable Long itemId, @RequestHeader(name = "X-Sharer-User-Id") long ownerId) {
+    public CompletableFuture<ResponseEntity<Object>> getItem(@PathVariable Long itemId, @RequestHeader(name = "X-Sharer-User-Id") long ownerId) {
         log.info("get item {}, User Id = {}", itemId, ownerId);
         return itemClient.getItem(itemId, ownerId);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(@PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(@PathVariable Long itemId) {
         log.info("delete item {}", itemId);
         return itemClient.deleteItem(itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader("X-Sharer-User-Id") Long owner) {
+    public CompletableFuture<ResponseEntity<Object>> getItems(@RequestHeader("X-Sharer-User-Id") Long owner) {
         log.info("get items owner = {}", owner);
         return itemClient.getItems(owner);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text) {
-        log.info("search items text = {}", text);
-        return itemClient.searchItems(text);
+    public CompletableFuture<ResponseEntity<Object>> searchItem(@RequestParam String text,
+                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("search items text = {}, from = {}, size = {}", text, from, size);
+        return itemClient.searchItems(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(name = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader(name = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
                                              @Valid @RequestBody CommentDto request) {
 
 
         log.info("add comment items = {}, user id = {}, commentDto = {}", itemId, userId, request);
         return itemClient.addComment(itemId, userId, request);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(@PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidStatusException("Начало периода должно быть раньше конца");
+        }
+        log.info("get availability item {}, from = {}, to = {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
 }
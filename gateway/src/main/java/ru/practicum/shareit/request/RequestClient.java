@@ -6,40 +6,48 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
 import ru.practicum.shareit.exception.InvalidStatusException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory requestFactory,
+                         @Nullable AsyncServerClient asyncClient, RequestCoalescer coalescer) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                asyncClient,
+                coalescer
         );
     }
 
-    public ResponseEntity<Object> createRequest(ItemRequestDto itemRequestDto, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(ItemRequestDto itemRequestDto, Long userId) {
         if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isBlank()) {
             throw new InvalidStatusException("Не может быть пустым");
         }
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequest(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequest(Long userId) {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, Integer from, Integer size) {
         if (size <= 0 || from < 0) {
             throw new IllegalReceiveException("Неверно указан параметр");
         }
@@ -50,7 +58,7 @@ public class RequestClient extends BaseClient {
         return get("/all?from=" + from + "&size=" + size + "", userId);
     }
 
-    public ResponseEntity<Object> getRequestForId(Long userId, Long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestForId(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
@@ -11,6 +11,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/requests")
@@ -21,19 +22,19 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@Valid @RequestBody ItemRequestDto itemRequestDto, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(@Valid @RequestBody ItemRequestDto itemRequestDto, @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Creating request {}, user Id {}", itemRequestDto, userId);
         return requestClient.createRequest(itemRequestDto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequest(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequest(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("get request  user Id {}", userId);
         return requestClient.getRequest(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @RequestParam(value = "from", defaultValue = "0", required = false) @PositiveOrZero Integer from,
                                                  @RequestParam(value = "size", defaultValue = "10", required = false) @Positive Integer size) {
         log.info("get all requests  user Id {}, from {}, size {}", userId, from, size);
@@ -41,7 +42,7 @@ public class RequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestForId(@PathVariable Long requestId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestForId(@PathVariable Long requestId, @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("get requests  user Id {}, request Id {}", userId, requestId);
         return requestClient.getRequestForId(userId, requestId);
     }
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Getter
+public class EndpointStats {
+    private final String endpoint;
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(long latencyNanos, int statusCode) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        if (statusCode >= 500) {
+            serverErrors.increment();
+        } else if (statusCode >= 400) {
+            clientErrors.increment();
+        }
+    }
+
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    public long getCount() {
+        return latencyMicros.getTotalCount();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+public class LoadReport {
+    private static final double MICROS_IN_MILLI = 1_000.0;
+    private static final String ROW = "%-45s %9s %11s %9s %9s %9s %9s %9s %6s %6s %6s%n";
+
+    private LoadReport() {
+    }
+
+    public static Path write(LoadTestOptions options, List<EndpointStats> stats) throws IOException {
+        Files.createDirectories(options.getReportDir());
+        Path report = options.getReportDir().resolve("report.txt");
+        stats.sort(Comparator.comparing(EndpointStats::getEndpoint));
+        Histogram total = new Histogram(3);
+        stats.forEach(endpoint -> total.add(endpoint.getLatencyMicros()));
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report), true, StandardCharsets.UTF_8)) {
+            out.println("ShareIt load test, " + LocalDateTime.now());
+            out.println(options);
+            out.println("Latency in ms, throughput in requests per second");
+            out.println();
+            out.printf(ROW, "endpoint", "requests", "throughput", "p50", "p90", "p99", "p999", "max", "4xx", "5xx", "failed");
+            for (EndpointStats endpoint : stats) {
+                out.printf(ROW, endpoint.getEndpoint(), endpoint.getCount(),
+                        throughput(endpoint.getCount(), options),
+                        percentile(endpoint.getLatencyMicros(), 50), percentile(endpoint.getLatencyMicros(), 90),
+                        percentile(endpoint.getLatencyMicros(), 99), percentile(endpoint.getLatencyMicros(), 99.9),
+                        millis(endpoint.getLatencyMicros().getMaxValue()),
+                        endpoint.getClientErrors().sum(), endpoint.getServerErrors().sum(), endpoint.getFailures().sum());
+            }
+            out.printf(ROW, "total", total.getTotalCount(), throughput(total.getTotalCount(), options),
+                    percentile(total, 50), percentile(total, 90), percentile(total, 99), percentile(total, 99.9),
+                    millis(total.getMaxValue()),
+                    stats.stream().mapToLong(endpoint -> endpoint.getClientErrors().sum()).sum(),
+                    stats.stream().mapToLong(endpoint -> endpoint.getServerErrors().sum()).sum(),
+                    stats.stream().mapToLong(endpoint -> endpoint.getFailures().sum()).sum());
+
+            for (EndpointStats endpoint : stats) {
+                out.println();
+                out.println("Distribution for " + endpoint.getEndpoint() + " (ms)");
+                endpoint.getLatencyMicros().outputPercentileDistribution(out, 5, MICROS_IN_MILLI);
+            }
+        }
+        return report;
+    }
+
+    private static String throughput(long count, LoadTestOptions options) {
+        return String.format("%.1f", (double) count / options.getDurationSeconds());
+    }
+
+    private static String percentile(Histogram histogram, double percentile) {
+        return millis(histogram.getValueAtPercentile(percentile));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / MICROS_IN_MILLI);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class LoadRunner {
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final PostmanVariables variables = new PostmanVariables();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public LoadRunner(String baseUrl, LoadTestOptions options) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+    }
+
+    /**
+     * Replays the whole collection once, in order, so the load phase finds the users, items and bookings it refers to.
+     */
+    public void seed(List<PostmanRequest> requests) throws InterruptedException {
+        for (PostmanRequest request : requests) {
+            long delayMillis = variables.run(request.getPreRequestScript());
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            try {
+                int status = httpClient.send(toHttpRequest(request), HttpResponse.BodyHandlers.discarding()).statusCode();
+                log.info("{} -> {} ({})", request.getEndpoint(), status, request.getName());
+            } catch (IOException e) {
+                log.warn("{} -> {} ({})", request.getEndpoint(), e.getMessage(), request.getName());
+            }
+        }
+    }
+
+    /**
+     * With a fixed rate, latency is measured from the moment a request was due rather than when it was sent,
+     * so a stalled server shows up in the percentiles instead of silently lowering the request rate.
+     */
+    public List<EndpointStats> run(List<PostmanRequest> mix) throws InterruptedException {
+        List<HttpRequest> httpRequests = mix.stream().map(this::toHttpRequest).collect(Collectors.toList());
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        long periodNanos = options.getRate() == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long deadlineNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+        AtomicLong sequence = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        for (int worker = 0; worker < options.getConcurrency(); worker++) {
+            Random random = new Random(options.getSeed() + worker);
+            workers.execute(() -> {
+                while (true) {
+                    long dueNanos = periodNanos == 0 ? System.nanoTime() : startNanos + sequence.getAndIncrement() * periodNanos;
+                    if (dueNanos >= deadlineNanos) {
+                        return;
+                    }
+                    long waitNanos = dueNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+                    int index = random.nextInt(httpRequests.size());
+                    PostmanRequest request = mix.get(index);
+                    int status;
+                    try {
+                        status = httpClient.send(httpRequests.get(index), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (dueNanos < measureFromNanos) {
+                        continue;
+                    }
+                    EndpointStats endpointStats = stats.computeIfAbsent(request.getEndpoint(), EndpointStats::new);
+                    if (status < 0) {
+                        endpointStats.recordFailure();
+                    } else {
+                        endpointStats.record(System.nanoTime() - dueNanos, status);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        long timeoutNanos = deadlineNanos - System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        if (!workers.awaitTermination(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            workers.shutdownNow();
+        }
+        return new ArrayList<>(stats.values());
+    }
+
+    private HttpRequest toHttpRequest(PostmanRequest request) {
+        StringBuilder uri = new StringBuilder(baseUrl);
+        for (String segment : request.getPathSegments()) {
+            uri.append('/').append(encode(variables.resolve(segment)));
+        }
+        String query = request.getQuery().entrySet().stream()
+                .map(parameter -> encode(parameter.getKey()) + "=" + encode(variables.resolve(parameter.getValue())))
+                .collect(Collectors.joining("&"));
+        if (!query.isEmpty()) {
+            uri.append('?').append(query);
+        }
+
+        String body = variables.resolve(request.getBody());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri.toString()))
+                .timeout(Duration.ofSeconds(30))
+                .method(request.getMethod(), body == null || body.isEmpty()
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        request.getHeaders().forEach((name, value) -> builder.header(name, variables.resolve(value)));
+        return builder.build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class LoadTestApp {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<PostmanRequest> requests = PostmanCollection.load(options.getCollection());
+        List<PostmanRequest> mix = requests.stream()
+                .filter(request -> options.isWrites() || request.isRead())
+                .collect(Collectors.toList());
+        if (mix.isEmpty()) {
+            throw new IllegalStateException("В коллекции нет запросов для нагрузки");
+        }
+
+        try (ShareItProcesses processes = new ShareItProcesses()) {
+            LoadRunner runner = new LoadRunner(processes.start(options), options);
+            log.info("Наполнение данными: {} запросов из {}", requests.size(), options.getCollection());
+            runner.seed(requests);
+            log.info("Нагрузка: {} запросов в смеси, {}", mix.size(), options);
+            List<EndpointStats> stats = runner.run(mix);
+            Path report = LoadReport.write(options, stats);
+            log.info("Отчет записан в {}", report);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Getter
+public class LoadTestOptions {
+    private final Path collection;
+    private final Path serverJar;
+    private final Path gatewayJar;
+    private final Path reportDir;
+    private final int concurrency;
+    private final int rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final boolean writes;
+    private final long seed;
+
+    private LoadTestOptions(Map<String, String> values) {
+        collection = Path.of(values.getOrDefault("collection", "postman/sprint.json"));
+        serverJar = jar(values.get("server-jar"), Path.of("server", "target"));
+        gatewayJar = jar(values.get("gateway-jar"), Path.of("gateway", "target"));
+        reportDir = Path.of(values.getOrDefault("report-dir", "load-test/target/report"));
+        concurrency = Integer.parseInt(values.getOrDefault("concurrency", "16"));
+        rate = Integer.parseInt(values.getOrDefault("rate", "0"));
+        durationSeconds = Integer.parseInt(values.getOrDefault("duration", "60"));
+        warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "10"));
+        writes = Boolean.parseBoolean(values.getOrDefault("writes", "false"));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        if (concurrency <= 0 || rate < 0 || durationSeconds <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("Неверно указаны параметры нагрузки");
+        }
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Неизвестный параметр: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    @Override
+    public String toString() {
+        return "concurrency=" + concurrency
+                + ", rate=" + (rate == 0 ? "unlimited" : rate + "/s")
+                + ", duration=" + durationSeconds + "s"
+                + ", warmup=" + warmupSeconds + "s"
+                + ", writes=" + writes
+                + ", seed=" + seed;
+    }
+
+    private static Path jar(String value, Path targetDir) {
+        if (value != null) {
+            return Path.of(value);
+        }
+        try (Stream<Path> files = Files.list(targetDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Не найден исполняемый jar в " + targetDir));
+        } catch (IOException e) {
+            throw new IllegalStateException("Не найден исполняемый jar в " + targetDir, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PostmanCollection {
+    private static final String BASE_URL = "{{baseUrl}}";
+
+    private PostmanCollection() {
+    }
+
+    public static List<PostmanRequest> load(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        List<PostmanRequest> requests = new ArrayList<>();
+        collect(root.path("item"), requests);
+        return requests;
+    }
+
+    private static void collect(JsonNode items, List<PostmanRequest> requests) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.path("item"), requests);
+            } else {
+                requests.add(toRequest(item));
+            }
+        }
+    }
+
+    private static PostmanRequest toRequest(JsonNode item) {
+        JsonNode request = item.path("request");
+        String method = request.path("method").asText("GET");
+        JsonNode url = request.path("url");
+
+        Map<String, String> pathVariables = new LinkedHashMap<>();
+        for (JsonNode variable : url.path("variable")) {
+            pathVariables.put(":" + variable.path("key").asText(), variable.path("value").asText());
+        }
+        List<String> segments = new ArrayList<>();
+        StringBuilder template = new StringBuilder();
+        for (String segment : pathOf(url)) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            segments.add(pathVariables.getOrDefault(segment, segment));
+            template.append('/').append(toTemplate(segment));
+        }
+
+        Map<String, String> query = new LinkedHashMap<>();
+        for (JsonNode parameter : url.path("query")) {
+            if (!parameter.path("disabled").asBoolean(false)) {
+                query.put(parameter.path("key").asText(), parameter.path("value").asText(""));
+            }
+        }
+        if (!query.isEmpty()) {
+            template.append('?').append(String.join("&", query.keySet()));
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (JsonNode header : request.path("header")) {
+            if (!header.path("disabled").asBoolean(false)) {
+                headers.put(header.path("key").asText(), header.path("value").asText());
+            }
+        }
+
+        String body = "raw".equals(request.path("body").path("mode").asText()) ? request.path("body").path("raw").asText() : null;
+        // Postman sends the content type of a raw body itself when the collection only names its language
+        boolean jsonBody = "json".equals(request.path("body").path("options").path("raw").path("language").asText());
+        if (body != null && jsonBody && headers.keySet().stream().noneMatch("Content-Type"::equalsIgnoreCase)) {
+            headers.put("Content-Type", "application/json");
+        }
+
+        List<String> script = new ArrayList<>();
+        for (JsonNode event : item.path("event")) {
+            if ("prerequest".equals(event.path("listen").asText())) {
+                event.path("script").path("exec").forEach(line -> script.add(line.asText().trim()));
+            }
+        }
+
+        return new PostmanRequest(item.path("name").asText(), method, method + " " + (template.length() == 0 ? "/" : template),
+                segments, query, headers, body, script);
+    }
+
+    private static String toTemplate(String segment) {
+        if (segment.startsWith(":")) {
+            return "{" + segment.substring(1) + "}";
+        }
+        return segment.chars().allMatch(Character::isDigit) ? "{id}" : segment;
+    }
+
+    private static List<String> pathOf(JsonNode url) {
+        List<String> path = new ArrayList<>();
+        if (url.isTextual()) {
+            String raw = url.asText().replace(BASE_URL, "");
+            int queryStart = raw.indexOf('?');
+            for (String segment : (queryStart < 0 ? raw : raw.substring(0, queryStart)).split("/")) {
+                path.add(segment);
+            }
+        } else {
+            url.path("path").forEach(segment -> path.add(segment.asText()));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class PostmanRequest {
+    private final String name;
+    private final String method;
+    private final String endpoint;
+    private final List<String> pathSegments;
+    private final Map<String, String> query;
+    private final Map<String, String> headers;
+    private final String body;
+    private final List<String> preRequestScript;
+
+    public boolean isRead() {
+        return "GET".equals(method);
+    }
+}
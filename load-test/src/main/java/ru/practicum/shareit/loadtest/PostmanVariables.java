@@ -0,0 +1,92 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the subset of Postman pre-request scripts used by the collection: moment() dates, environment variables
+ * and setTimeout pauses.
+ */
+public class PostmanVariables {
+    private static final Pattern MOMENT = Pattern.compile("var (\\w+) = moment\\(\\)((?:\\.add\\(-?\\d+, '\\w'\\))*);?");
+    private static final Pattern ADD = Pattern.compile("\\.add\\((-?\\d+), '(\\w)'\\)");
+    private static final Pattern SET = Pattern.compile("pm\\.environment\\.set\\('(\\w+)', (\\w+)\\.format\\('([^']*)'\\)\\);?");
+    private static final Pattern TIMEOUT = Pattern.compile("var \\w+ = setTimeout\\(function\\(\\)\\{}, (\\d+)\\);?");
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    public long run(List<String> script) {
+        Map<String, LocalDateTime> dates = new HashMap<>();
+        long delayMillis = 0;
+        for (String line : script) {
+            Matcher matcher = MOMENT.matcher(line);
+            if (matcher.matches()) {
+                dates.put(matcher.group(1), add(LocalDateTime.now(), matcher.group(2)));
+                continue;
+            }
+            matcher = SET.matcher(line);
+            if (matcher.matches() && dates.containsKey(matcher.group(2))) {
+                values.put(matcher.group(1), dates.get(matcher.group(2)).format(toFormatter(matcher.group(3))));
+                continue;
+            }
+            matcher = TIMEOUT.matcher(line);
+            if (matcher.matches()) {
+                delayMillis += Long.parseLong(matcher.group(1));
+            }
+        }
+        return delayMillis;
+    }
+
+    public String resolve(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = VARIABLE.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = values.getOrDefault(matcher.group(1), matcher.group());
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static LocalDateTime add(LocalDateTime dateTime, String additions) {
+        Matcher matcher = ADD.matcher(additions);
+        while (matcher.find()) {
+            long amount = Long.parseLong(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "d":
+                    dateTime = dateTime.plusDays(amount);
+                    break;
+                case "h":
+                    dateTime = dateTime.plusHours(amount);
+                    break;
+                case "m":
+                    dateTime = dateTime.plusMinutes(amount);
+                    break;
+                case "s":
+                    dateTime = dateTime.plusSeconds(amount);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неподдерживаемая единица времени: " + matcher.group(2));
+            }
+        }
+        return dateTime;
+    }
+
+    private static DateTimeFormatter toFormatter(String momentPattern) {
+        return DateTimeFormatter.ofPattern(momentPattern
+                .replace("YYYY", "yyyy")
+                .replace("DD", "dd")
+                .replace("T", "'T'")
+                .replace(".sss", ".SSS"));
+    }
+}
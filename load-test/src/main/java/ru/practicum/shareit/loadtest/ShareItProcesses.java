@@ -0,0 +1,99 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server and gateway run as child JVMs: both declare classes with the same names, so they cannot share a class loader.
+ */
+@Slf4j
+public class ShareItProcesses implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final List<Process> processes = new ArrayList<>();
+
+    public String start(LoadTestOptions options) throws IOException, InterruptedException {
+        Files.createDirectories(options.getReportDir());
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+
+        start("server", options.getServerJar(), serverPort, Map.of(), options.getReportDir());
+        awaitHealthy("server", "http://localhost:" + serverPort);
+
+        start("gateway", options.getGatewayJar(), gatewayPort,
+                Map.of("SHAREIT_SERVER_URL", "http://localhost:" + serverPort), options.getReportDir());
+        String gatewayUrl = "http://localhost:" + gatewayPort;
+        awaitHealthy("gateway", gatewayUrl);
+        return gatewayUrl;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void start(String name, Path jar, int port, Map<String, String> environment, Path logDir) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-jar", jar.toString(),
+                "--spring.profiles.active=test",
+                "--server.port=" + port,
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO")
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(name + ".log").toFile());
+        builder.environment().putAll(environment);
+        log.info("Запуск {} из {} на порту {}", name, jar, port);
+        processes.add(builder.start());
+    }
+
+    private void awaitHealthy(String name, String baseUrl) throws InterruptedException {
+        Process process = processes.get(processes.size() - 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился с кодом " + process.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    log.info("{} запущен", name);
+                    return;
+                }
+            } catch (IOException e) {
+                log.debug("{} еще не отвечает: {}", name, e.getMessage());
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT.toSeconds() + " с");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
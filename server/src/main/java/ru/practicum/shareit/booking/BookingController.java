@@ -2,9 +2,14 @@ package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCreationResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 
 import java.util.List;
 
@@ -12,6 +17,7 @@ import java.util.List;
 @Slf4j
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final IBookingService bookingService;
 
     @Autowired
@@ -27,6 +33,15 @@ public class BookingController {
         return booking;
     }
 
+    @PostMapping("/batch")
+    public List<BookingCreationResultDto> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                                         @RequestHeader("X-Sharer-User-Id") Long owner) {
+        log.info("Пакетное создание букингов, количество: " + bookingDtos.size());
+        List<BookingCreationResultDto> results = bookingService.addAll(bookingDtos, owner);
+        log.info("Отправлен ответ " + results);
+        return results;
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoResponse changeBookingStatus(@PathVariable Long bookingId,
                                                   @RequestParam(name = "approved") Boolean approved,
@@ -38,6 +53,15 @@ public class BookingController {
         return booking;
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> changeBookingStatuses(@RequestBody List<BookingDecisionDto> decisions,
+                                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Пакетное изменение статусов букингов, количество: " + decisions.size());
+        List<BookingDecisionResultDto> results = bookingService.changeStatuses(decisions, userId);
+        log.info("Отправлен ответ " + results);
+        return results;
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoResponse getBookingById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                              @PathVariable Long bookingId) {
@@ -48,19 +72,33 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoResponse> getBookingsByBooker(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                        @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                                        @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
-                                                        @RequestParam(value = "size", defaultValue = "10", required = false) Integer size) {
-
-
-        return bookingService.getAllByBookers(userId, state, from, size);
+    public ResponseEntity<List<BookingDtoResponse>> getBookingsByBooker(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                        @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                        @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
+                                                                        @RequestParam(value = "size", defaultValue = "10", required = false) Integer size,
+                                                                        @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            return toResponse(bookingService.getPageByBooker(userId, state, after, size));
+        }
+        return ResponseEntity.ok(bookingService.getAllByBookers(userId, state, from, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResponse> getBookingsByOwner(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                       @RequestParam(name = "state", defaultValue = "ALL") String state, @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
-                                                       @RequestParam(value = "size", defaultValue = "10", required = false) Integer size) {
-        return bookingService.getAllByOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingDtoResponse>> getBookingsByOwner(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                       @RequestParam(name = "state", defaultValue = "ALL") String state, @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
+                                                                       @RequestParam(value = "size", defaultValue = "10", required = false) Integer size,
+                                                                       @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            return toResponse(bookingService.getPageByOwner(userId, state, after, size));
+        }
+        return ResponseEntity.ok(bookingService.getAllByOwner(userId, state, from, size));
+    }
+
+    private static ResponseEntity<List<BookingDtoResponse>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        return responseBuilder.body(page.getBookings());
     }
 }
@@ -0,0 +1,262 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approved bookings per item, ordered by start and booking id, used to refuse a booking that overlaps an approved one
+ * without going to the database.
+ *
+ * <p>Rows that already overlap in the database (written before the index existed, or by another instance) are all kept:
+ * each of them really occupies the item. A warning names them, and conflict checks for such an item look through every
+ * interval that starts before the requested end instead of only the latest one.
+ *
+ * <p>Finished intervals are pruned whenever an item is checked or reserved, and an item that has none left is dropped
+ * from the index. Deleting an item, or a user together with their items and bookings, removes their intervals.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingIntervalIndex {
+    private final BookingRepository repository;
+
+    // Reservations and checks hold the read lock, so rebuild() can carry them over and swap the map in without losing one
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<Long, ItemIntervals> intervals = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = repository.findAllByStatusAndEndIsAfter(BookingStatusEnum.APPROVED, now);
+        Map<Long, ItemIntervals> rebuilt = new ConcurrentHashMap<>();
+        for (Booking booking : bookings) {
+            rebuilt.computeIfAbsent(booking.getItem().getId(), id -> new ItemIntervals(booking.getItem().getOwner()))
+                    .add(Interval.of(booking));
+        }
+
+        int overlapping = 0;
+        for (Map.Entry<Long, ItemIntervals> entry : rebuilt.entrySet()) {
+            ItemIntervals itemIntervals = entry.getValue();
+            if (itemIntervals.overlapping) {
+                overlapping++;
+                log.warn("Подтвержденные букинги предмета {} пересекаются: {}", entry.getKey(), itemIntervals.describe());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Reservations made while the snapshot was read are not in it yet
+            for (Map.Entry<Long, ItemIntervals> entry : intervals.entrySet()) {
+                ItemIntervals itemIntervals = rebuilt.computeIfAbsent(entry.getKey(),
+                        id -> new ItemIntervals(entry.getValue().ownerId));
+                entry.getValue().intervals.stream()
+                        .filter(interval -> interval.end.isAfter(now))
+                        .forEach(itemIntervals::add);
+            }
+            intervals = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс занятости построен, подтвержденных букингов: {}, предметов с пересечениями: {}",
+                bookings.size(), overlapping);
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        // Pruning changes the intervals, so like a reservation it must not run while rebuild() copies them
+        lock.readLock().lock();
+        try {
+            ItemIntervals itemIntervals = intervals.get(itemId);
+            if (itemIntervals == null) {
+                return true;
+            }
+            synchronized (itemIntervals) {
+                itemIntervals.removeFinished(LocalDateTime.now());
+                if (itemIntervals.intervals.isEmpty()) {
+                    drop(itemId, itemIntervals);
+                    return true;
+                }
+                return itemIntervals.findConflict(start, end) == null;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean reserve(Booking booking) {
+        Interval interval = Interval.of(booking);
+        Long itemId = booking.getItem().getId();
+        lock.readLock().lock();
+        try {
+            while (true) {
+                ItemIntervals itemIntervals = intervals.computeIfAbsent(itemId,
+                        id -> new ItemIntervals(booking.getItem().getOwner()));
+                synchronized (itemIntervals) {
+                    if (itemIntervals.dropped) {
+                        // Emptied and removed from the map by another thread after we got it, take a fresh one
+                        continue;
+                    }
+                    if (itemIntervals.intervals.contains(interval)) {
+                        return false;
+                    }
+                    if (itemIntervals.findConflict(interval.start, interval.end) != null) {
+                        throw new ItemNotAvailableException("Предмет уже забронирован на это время");
+                    }
+                    itemIntervals.removeFinished(LocalDateTime.now());
+                    itemIntervals.add(interval);
+                    return true;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void release(Booking booking) {
+        lock.readLock().lock();
+        try {
+            ItemIntervals itemIntervals = intervals.get(booking.getItem().getId());
+            if (itemIntervals == null) {
+                return;
+            }
+            synchronized (itemIntervals) {
+                itemIntervals.intervals.remove(Interval.of(booking));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void removeItem(Long itemId) {
+        lock.readLock().lock();
+        try {
+            ItemIntervals itemIntervals = intervals.get(itemId);
+            if (itemIntervals != null) {
+                synchronized (itemIntervals) {
+                    drop(itemId, itemIntervals);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the items the user owned and the bookings they made: the database removes both together with the user. Runs
+     * over the whole index, which is fine for a rare operation.
+     */
+    public void removeUser(Long userId) {
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, ItemIntervals> entry : intervals.entrySet()) {
+                ItemIntervals itemIntervals = entry.getValue();
+                synchronized (itemIntervals) {
+                    if (userId.equals(itemIntervals.ownerId)) {
+                        drop(entry.getKey(), itemIntervals);
+                        continue;
+                    }
+                    itemIntervals.intervals.removeIf(interval -> userId.equals(interval.bookerId));
+                    if (itemIntervals.intervals.isEmpty()) {
+                        drop(entry.getKey(), itemIntervals);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called while holding the monitor of itemIntervals, so a reservation waiting for it sees the flag and retries
+    private void drop(Long itemId, ItemIntervals itemIntervals) {
+        itemIntervals.dropped = true;
+        intervals.remove(itemId, itemIntervals);
+    }
+
+    private static class ItemIntervals {
+        private final NavigableSet<Interval> intervals = new TreeSet<>(Interval.ORDER);
+        private final Long ownerId;
+        private boolean overlapping;
+        private boolean dropped;
+
+        ItemIntervals(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        void add(Interval interval) {
+            if (!intervals.contains(interval) && findConflict(interval.start, interval.end) != null) {
+                overlapping = true;
+            }
+            intervals.add(interval);
+        }
+
+        Interval findConflict(LocalDateTime start, LocalDateTime end) {
+            Iterator<Interval> earlier = intervals.headSet(Interval.startingAt(end), false).descendingIterator();
+            while (earlier.hasNext()) {
+                Interval interval = earlier.next();
+                if (interval.end.isAfter(start)) {
+                    return interval;
+                }
+                if (!overlapping) {
+                    // Without overlaps every earlier interval ends before this one starts
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        void removeFinished(LocalDateTime dateTime) {
+            intervals.headSet(Interval.startingAt(dateTime), false).removeIf(interval -> !interval.end.isAfter(dateTime));
+        }
+
+        String describe() {
+            StringBuilder builder = new StringBuilder();
+            for (Interval interval : intervals) {
+                builder.append(interval.bookingId).append(" [").append(interval.start).append(", ")
+                        .append(interval.end).append(") ");
+            }
+            return builder.toString().trim();
+        }
+    }
+
+    private static class Interval {
+        private static final Comparator<Interval> ORDER = Comparator.comparing((Interval interval) -> interval.start)
+                .thenComparing(interval -> interval.bookingId);
+
+        private final Long bookingId;
+        private final Long bookerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Interval(Long bookingId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.bookerId = bookerId;
+            this.start = start;
+            this.end = end;
+        }
+
+        static Interval of(Booking booking) {
+            Long bookerId = booking.getBooker() == null ? null : booking.getBooker().getId();
+            return new Interval(booking.getId(), bookerId, booking.getStart(), booking.getEnd());
+        }
+
+        static Interval startingAt(LocalDateTime start) {
+            return new Interval(Long.MIN_VALUE, null, start, start);
+        }
+    }
+}
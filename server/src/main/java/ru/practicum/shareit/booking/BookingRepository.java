@@ -1,39 +1,105 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.model.Booking;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long booker, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id = :id")
+    Optional<Booking> findWithItemAndBookerById(@Param("id") Long id);
 
-    List<Booking> findByBookerIdAndEndIsBefore(Long booker, LocalDateTime end, Sort sort);
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id = :id and b.status = :expected")
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") BookingStatusEnum expected,
+                     @Param("status") BookingStatusEnum status);
 
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start, LocalDateTime end, Sort sort);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id in :ids")
+    List<Booking> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
 
-    List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Sort sort);
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id in :ids and b.status = :expected")
+    int updateStatuses(@Param("ids") Collection<Long> ids,
+                       @Param("expected") BookingStatusEnum expected,
+                       @Param("status") BookingStatusEnum status);
 
-    List<Booking> findByBookerIdAndStartIsAfterAndStatusIs(Long userId, LocalDateTime date, Sort sort, BookingStatusEnum bookingStatus);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.booker.id = :bookerId " +
+            "and b.start > :startAfter and b.start < :startBefore " +
+            "and b.end > :endAfter and b.end < :endBefore " +
+            "and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBooker(@Param("bookerId") Long bookerId,
+                                  @Param("startAfter") LocalDateTime startAfter,
+                                  @Param("startBefore") LocalDateTime startBefore,
+                                  @Param("endAfter") LocalDateTime endAfter,
+                                  @Param("endBefore") LocalDateTime endBefore,
+                                  @Param("statuses") List<BookingStatusEnum> statuses,
+                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                  @Param("cursorId") Long cursorId,
+                                  Pageable pageable);
 
-    List<Booking> findAllByItemId(Long id);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.owner = :ownerId " +
+            "and b.start > :startAfter and b.start < :startBefore " +
+            "and b.end > :endAfter and b.end < :endBefore " +
+            "and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwner(@Param("ownerId") Long ownerId,
+                                 @Param("startAfter") LocalDateTime startAfter,
+                                 @Param("startBefore") LocalDateTime startBefore,
+                                 @Param("endAfter") LocalDateTime endAfter,
+                                 @Param("endBefore") LocalDateTime endBefore,
+                                 @Param("statuses") List<BookingStatusEnum> statuses,
+                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
 
-    List<Booking> findByItemIdInAndStartIsBeforeAndEndIsAfter(List<Long> itemId, LocalDateTime date, LocalDateTime date1, Sort sort);
+    @Query(value = "select t.id as id, t.item_id as itemId, t.booker_id as bookerId, " +
+            "t.start_date as startDate, t.end_date as endDate, t.kind as kind from (" +
+            "select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, 'LAST' as kind, " +
+            "row_number() over (partition by b.item_id order by b.end_date desc) as rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date < :now " +
+            "union all " +
+            "select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, 'NEXT' as kind, " +
+            "row_number() over (partition by b.item_id order by b.start_date) as rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date > :now" +
+            ") t where t.rn = 1", nativeQuery = true)
+    List<BookingShort> findLastAndNext(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemIdInAndEndIsBefore(List<Long> itemId, LocalDateTime date, Sort sort);
+    // Derived queries on item.id left join items and filter on the joined id, which hides the item_id index
+    @Query("select b from Booking b where b.item.id = :id")
+    List<Booking> findAllByItemId(@Param("id") Long id);
 
-    List<Booking> findAllByItemIdIn(List<Long> itemId, Pageable pageable);
+    @Query("select b from Booking b where b.item.id in :itemIds")
+    List<Booking> findAllByItemIdIn(@Param("itemIds") List<Long> itemId);
 
-    List<Booking> findByItemIdInAndStartIsAfter(List<Long> itemIdList, LocalDateTime date, Sort sort);
+    @Query("select b from Booking b where b.item.id = :itemId and b.end < :date")
+    List<Booking> findByItemIdAndEndIsBefore(@Param("itemId") Long itemId, @Param("date") LocalDateTime date);
 
-    List<Booking> findByItemIdInAndStartIsAfterAndStatusIs(List<Long> itemId, LocalDateTime date, Sort sort, BookingStatusEnum bookingStatus);
+    List<Booking> findAllByStatusAndEndIsAfter(BookingStatusEnum status, LocalDateTime date);
 
-    List<Booking> findAllByItemIdIn(List<Long> itemId);
-
-    List<Booking> findByItemIdAndEndIsBefore(Long itemId, LocalDateTime date);
+    List<Booking> findAllByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(Long itemId, List<BookingStatusEnum> statuses,
+                                                                                        LocalDateTime to, LocalDateTime from);
 }
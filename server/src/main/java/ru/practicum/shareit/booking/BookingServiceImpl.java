@@ -3,87 +3,232 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingCreationResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.InvalidStatusException;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.IItemService;
+import ru.practicum.shareit.item.ItemBookingSummaryStore;
 import ru.practicum.shareit.item.ItemMapper.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.ItemDtoForBooking;
 import ru.practicum.shareit.user.IUserService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RestController()
 public class BookingServiceImpl implements IBookingService {
+    // Same limit as the gateway, so that a direct caller cannot push an unbounded batch into one transaction
+    static final int MAX_BATCH_SIZE = 100;
+
     private final BookingRepository repository;
     private final IItemService itemService;
     private final IUserService userService;
+    private final ItemBookingSummaryStore bookingSummaryStore;
+    private final BookingIntervalIndex intervalIndex;
 
     @Autowired
     public BookingServiceImpl(BookingRepository repository,
                               IItemService itemService,
-                              IUserService userService) {
+                              IUserService userService,
+                              ItemBookingSummaryStore bookingSummaryStore,
+                              BookingIntervalIndex intervalIndex) {
         this.repository = repository;
         this.itemService = itemService;
         this.userService = userService;
+        this.bookingSummaryStore = bookingSummaryStore;
+        this.intervalIndex = intervalIndex;
     }
 
     @Override
     public BookingDtoResponse add(BookingDto bookingDto, Long owner) {
         ItemDto itemDto = itemService.get(bookingDto.getItemId());
         UserDto userDto = userService.get(owner);
-        ItemDtoForBooking itemDtoForBooking = itemService.getItemDtoForBooking(itemDto.getId(), owner);
-        if (itemDtoForBooking.getOwner().equals(owner)) {
-            throw new UserNotFoundException("Нельзя забронировать свою же вещь!");
+        checkCanBook(bookingDto, itemDto, owner);
+
+        Booking booking = toNewBooking(bookingDto, itemDto, UserMapper.toDtoUser(userDto));
+        repository.save(booking);
+        return BookingMapper.toBookingDto(booking, userDto, itemDto);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingCreationResultDto> addAll(List<BookingDto> bookingDtos, Long owner) {
+        checkBatch(bookingDtos);
+        UserDto userDto = userService.get(owner);
+        User booker = UserMapper.toDtoUser(userDto);
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemDto> items = itemService.getAllByIds(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+
+        Booking[] created = new Booking[bookingDtos.size()];
+        String[] errors = new String[bookingDtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            ItemDto itemDto = items.get(bookingDto.getItemId());
+            try {
+                if (itemDto == null) {
+                    throw new UserNotFoundException("Предмет не найден");
+                }
+                checkCanBook(bookingDto, itemDto, owner);
+            } catch (UserNotFoundException | ItemNotAvailableException e) {
+                errors[i] = e.getMessage();
+                continue;
+            }
+            created[i] = toNewBooking(bookingDto, itemDto, booker);
+            bookings.add(created[i]);
         }
-        if (itemDto.getAvailable() && bookingDto.getStart().isBefore(bookingDto.getEnd()) && bookingDto.getStart().isAfter(LocalDateTime.now())) {
+        repository.saveAll(bookings);
 
-            Booking booking = BookingMapper.toBookingDto(bookingDto);
-            booking.setBooker(UserMapper.toDtoUser(userService.get(owner)));
-            booking.setItem(ItemMapper.toDtoItem(itemService.get(bookingDto.getItemId()), owner));
-            booking.setBooker(UserMapper.toDtoUser(userService.get(owner)));
-            booking.setStatus(BookingStatusEnum.WAITING);
-            repository.save(booking);
-            return BookingMapper.toBookingDto(booking, userDto, itemDto);
+        List<BookingCreationResultDto> results = new ArrayList<>(bookingDtos.size());
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            Long itemId = bookingDtos.get(i).getItemId();
+            if (created[i] == null) {
+                results.add(new BookingCreationResultDto(itemId, null, errors[i]));
+            } else {
+                results.add(new BookingCreationResultDto(itemId,
+                        BookingMapper.toBookingDto(created[i], userDto, items.get(itemId)), null));
+            }
         }
-        throw new ItemNotAvailableException("Предмет недоступен");
+        return results;
     }
 
     @Override
     public BookingDtoResponse changeStatus(Long id, Boolean approved, Long userId) {
-        Booking booking = repository.findById(id)
+        Booking booking = repository.findWithItemAndBookerById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Букинг не найден, не удалось изменить статус"));
-        ItemDto itemDto = ItemMapper.toItemDto(booking.getItem());
-        UserDto userDto = userService.get(booking.getBooker().getId());
-        if (userDto.getId().equals(userId)) {
+        if (!booking.getItem().getOwner().equals(userId)) {
             throw new UserNotFoundException("Нет доступа к букингу.");
-
         }
         if (!booking.getStatus().equals(BookingStatusEnum.WAITING)) {
             throw new InvalidStatusException("Ошибка статуса");
         }
+        BookingStatusEnum status = approved ? BookingStatusEnum.APPROVED : BookingStatusEnum.REJECTED;
+        boolean reserved = approved && intervalIndex.reserve(booking);
+        if (approved && !reserved) {
+            // A concurrent approval of this booking holds the interval and will update the status itself
+            throw new InvalidStatusException("Ошибка статуса");
+        }
+        int updated;
+        try {
+            updated = repository.updateStatus(id, BookingStatusEnum.WAITING, status);
+        } catch (RuntimeException e) {
+            if (reserved) {
+                intervalIndex.release(booking);
+            }
+            throw e;
+        }
+        if (updated == 0) {
+            if (reserved) {
+                intervalIndex.release(booking);
+            }
+            throw new InvalidStatusException("Ошибка статуса");
+        }
+        booking.setStatus(status);
         if (approved) {
-            booking.setStatus(BookingStatusEnum.APPROVED);
-        } else {
-            booking.setStatus(BookingStatusEnum.REJECTED);
+            bookingSummaryStore.onApproved(booking);
         }
-        repository.save(booking);
-        return BookingMapper.toBookingDto(booking, userDto, itemDto);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> changeStatuses(List<BookingDecisionDto> decisions, Long userId) {
+        checkBatch(decisions);
+        if (decisions.stream().anyMatch(decision -> decision.getBookingId() == null || decision.getApproved() == null)) {
+            throw new InvalidStatusException("Неверно указан параметр");
+        }
+        Set<Long> ids = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = repository.findAllForUpdateByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        List<Booking> approvedBookings = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        Set<Long> decided = new HashSet<>();
+        // Intervals are reserved right away so that decisions in one batch see each other; the summaries change only
+        // after commit, and a rollback gives the reservations back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                approvedBookings.forEach(bookingSummaryStore::onApproved);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    approvedBookings.forEach(intervalIndex::release);
+                }
+            }
+        });
+        for (BookingDecisionDto decision : decisions) {
+            Long id = decision.getBookingId();
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                results.add(new BookingDecisionResultDto(id, null, null, "Букинг не найден, не удалось изменить статус"));
+            } else if (!booking.getItem().getOwner().equals(userId)) {
+                results.add(new BookingDecisionResultDto(id, booking.getItem().getId(), booking.getStatus(), "Нет доступа к букингу."));
+            } else if (!booking.getStatus().equals(BookingStatusEnum.WAITING) || !decided.add(id)) {
+                results.add(new BookingDecisionResultDto(id, booking.getItem().getId(), booking.getStatus(), "Ошибка статуса"));
+            } else if (Boolean.TRUE.equals(decision.getApproved())) {
+                try {
+                    if (intervalIndex.reserve(booking)) {
+                        approvedBookings.add(booking);
+                        results.add(new BookingDecisionResultDto(id, booking.getItem().getId(), BookingStatusEnum.APPROVED, null));
+                    } else {
+                        results.add(new BookingDecisionResultDto(id, booking.getItem().getId(), booking.getStatus(), "Ошибка статуса"));
+                    }
+                } catch (ItemNotAvailableException e) {
+                    decided.remove(id);
+                    results.add(new BookingDecisionResultDto(id, booking.getItem().getId(), booking.getStatus(), e.getMessage()));
+                }
+            } else {
+                rejectedIds.add(id);
+                results.add(new BookingDecisionResultDto(id, booking.getItem().getId(), BookingStatusEnum.REJECTED, null));
+            }
+        }
+
+        if (!approvedBookings.isEmpty()) {
+            repository.updateStatuses(approvedBookings.stream().map(Booking::getId).collect(Collectors.toList()),
+                    BookingStatusEnum.WAITING, BookingStatusEnum.APPROVED);
+        }
+        if (!rejectedIds.isEmpty()) {
+            repository.updateStatuses(rejectedIds, BookingStatusEnum.WAITING, BookingStatusEnum.REJECTED);
+        }
+        approvedBookings.forEach(booking -> booking.setStatus(BookingStatusEnum.APPROVED));
+        return results;
     }
 
     @Override
@@ -99,90 +244,24 @@ public class BookingServiceImpl implements IBookingService {
 
     @Override
     public List<BookingDtoResponse> getAllByBookers(Long userId, String state, Integer from, Integer size) {
-        UserDto userDto = userService.get(userId);
-        int page = 0;
-        if (from != 0) {
-            page = from / size;
-        }
-        Pageable pageable = PageRequest.of(page, size, Sort.by("start").descending());
+        return BookingMapper.mapToBookingDto(findAllByBooker(userId, state, BookingCursor.FIRST, toPageable(from, size)));
+    }
 
-        LocalDateTime dateNow = LocalDateTime.now();
-        Sort sort = Sort.by("start").descending();
-        State bookingState = State.stringToState(state)
-                .orElseThrow(() -> new InvalidStatusException("Unknown state: " + state));
-        List<Booking> bookings;
-
-        switch (bookingState) {
-            case ALL:
-                bookings = repository.findAllByBookerId(userId, pageable);
-                break;
-            case CURRENT:
-                bookings = repository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, dateNow, dateNow, sort);
-                break;
-            case PAST:
-                bookings = repository.findByBookerIdAndEndIsBefore(userId, dateNow, sort);
-                break;
-            case FUTURE:
-                bookings = repository.findByBookerIdAndStartIsAfter(userId, dateNow, sort);
-                break;
-            case WAITING:
-                bookings = repository.findByBookerIdAndStartIsAfterAndStatusIs(userId, dateNow, sort, BookingStatusEnum.WAITING);
-                break;
-            default:
-                bookings = repository.findByBookerIdAndStartIsAfterAndStatusIs(userId, dateNow, sort, BookingStatusEnum.REJECTED);
-                break;
-        }
-        List<BookingDtoResponse> bookingDtoResponse = new ArrayList<>();
-        for (Booking bok : bookings) {
-            bookingDtoResponse.add(BookingMapper.toBookingDto(bok, userService.get(bok.getBooker().getId()), itemService.get(bok.getItem().getId())));
-        }
-        return bookingDtoResponse;
+    @Override
+    public BookingPageDto getPageByBooker(Long userId, String state, String after, Integer size) {
+        List<Booking> bookings = findAllByBooker(userId, state, BookingCursor.decode(after), PageRequest.of(0, size));
+        return toPage(bookings, size);
     }
 
     @Override
     public List<BookingDtoResponse> getAllByOwner(Long ownerId, String state, Integer from, Integer size) {
-        int page = 0;
-        if (from != 0) {
-            page = from / size;
-        }
-        Pageable pageable = PageRequest.of(page, size, Sort.by("start").descending());
+        return BookingMapper.mapToBookingDto(findAllByOwner(ownerId, state, BookingCursor.FIRST, toPageable(from, size)));
+    }
 
-        UserDto userDto = userService.get(ownerId);
-        LocalDateTime dateNow = LocalDateTime.now();
-        Sort sort = Sort.by("start").descending();
-        State bookingState = State.stringToState(state)
-                .orElseThrow(() -> new InvalidStatusException("Unknown state: " + state));
-        List<Long> itemIdList = itemService.getItems(userDto.getId())
-                .stream()
-                .map(ItemDtoForBooking::getId)
-                .collect(Collectors.toList());
-
-        List<Booking> bookings;
-        switch (bookingState) {
-            case ALL:
-                bookings = repository.findAllByItemIdIn(itemIdList, pageable);
-                break;
-            case CURRENT:
-                bookings = repository.findByItemIdInAndStartIsBeforeAndEndIsAfter(itemIdList, dateNow, dateNow, sort);
-                break;
-            case PAST:
-                bookings = repository.findByItemIdInAndEndIsBefore(itemIdList, dateNow, sort);
-                break;
-            case FUTURE:
-                bookings = repository.findByItemIdInAndStartIsAfter(itemIdList, dateNow, sort);
-                break;
-            case WAITING:
-                bookings = repository.findByItemIdInAndStartIsAfterAndStatusIs(itemIdList, dateNow, sort, BookingStatusEnum.WAITING);
-                break;
-            default:
-                bookings = repository.findByItemIdInAndStartIsAfterAndStatusIs(itemIdList, dateNow, sort, BookingStatusEnum.REJECTED);
-                break;
-        }
-        List<BookingDtoResponse> bookingDtoResponse = new ArrayList<>();
-        for (Booking bok : bookings) {
-            bookingDtoResponse.add(BookingMapper.toBookingDto(bok, userService.get(bok.getBooker().getId()), itemService.get(bok.getItem().getId())));
-        }
-        return bookingDtoResponse;
+    @Override
+    public BookingPageDto getPageByOwner(Long ownerId, String state, String after, Integer size) {
+        List<Booking> bookings = findAllByOwner(ownerId, state, BookingCursor.decode(after), PageRequest.of(0, size));
+        return toPage(bookings, size);
     }
 
     @Override
@@ -199,5 +278,72 @@ public class BookingServiceImpl implements IBookingService {
     public List<Booking> getAllByItemIdAndTime(Long itemId, LocalDateTime created) {
         return repository.findByItemIdAndEndIsBefore(itemId, created);
     }
-}
 
+    private void checkCanBook(BookingDto bookingDto, ItemDto itemDto, Long owner) {
+        if (itemDto.getOwner().equals(owner)) {
+            throw new UserNotFoundException("Нельзя забронировать свою же вещь!");
+        }
+        if (!itemDto.getAvailable() || bookingDto.getStart() == null || bookingDto.getEnd() == null
+                || !bookingDto.getStart().isBefore(bookingDto.getEnd()) || !bookingDto.getStart().isAfter(LocalDateTime.now())) {
+            throw new ItemNotAvailableException("Предмет недоступен");
+        }
+        if (!intervalIndex.isFree(itemDto.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ItemNotAvailableException("Предмет уже забронирован на это время");
+        }
+    }
+
+    private static void checkBatch(List<?> batch) {
+        if (batch == null || batch.isEmpty() || batch.size() > MAX_BATCH_SIZE
+                || batch.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidStatusException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " элементов");
+        }
+    }
+
+    private static Booking toNewBooking(BookingDto bookingDto, ItemDto itemDto, User booker) {
+        Booking booking = BookingMapper.toBookingDto(bookingDto);
+        booking.setId(null);
+        booking.setBooker(booker);
+        booking.setItem(ItemMapper.toDtoItem(itemDto, itemDto.getOwner()));
+        booking.setStatus(BookingStatusEnum.WAITING);
+        return booking;
+    }
+
+    private static Pageable toPageable(Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new InvalidStatusException("Неверно указан параметр");
+        }
+        return OffsetPageRequest.of(from, size);
+    }
+
+    private List<Booking> findAllByBooker(Long userId, String state, BookingCursor cursor, Pageable pageable) {
+        userService.get(userId);
+        StateFilter filter = toStateFilter(state);
+        return repository.findAllByBooker(userId,
+                filter.getStartAfter(), filter.getStartBefore(),
+                filter.getEndAfter(), filter.getEndBefore(),
+                filter.getStatuses(), cursor.getStart(), cursor.getId(), pageable);
+    }
+
+    private List<Booking> findAllByOwner(Long ownerId, String state, BookingCursor cursor, Pageable pageable) {
+        userService.get(ownerId);
+        StateFilter filter = toStateFilter(state);
+        return repository.findAllByOwner(ownerId,
+                filter.getStartAfter(), filter.getStartBefore(),
+                filter.getEndAfter(), filter.getEndBefore(),
+                filter.getStatuses(), cursor.getStart(), cursor.getId(), pageable);
+    }
+
+    private static StateFilter toStateFilter(String state) {
+        State bookingState = State.stringToState(state)
+                .orElseThrow(() -> new InvalidStatusException("Unknown state: " + state));
+        return StateFilter.of(bookingState, LocalDateTime.now());
+    }
+
+    private static BookingPageDto toPage(List<Booking> bookings, Integer size) {
+        String next = null;
+        if (bookings.size() == size) {
+            next = BookingCursor.encode(bookings.get(bookings.size() - 1));
+        }
+        return new BookingPageDto(BookingMapper.mapToBookingDto(bookings), next);
+    }
+}
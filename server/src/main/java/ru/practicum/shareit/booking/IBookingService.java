@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingCreationResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
@@ -10,14 +14,22 @@ import java.util.List;
 public interface IBookingService {
     BookingDtoResponse add(BookingDto bookingDto, Long owner);
 
+    List<BookingCreationResultDto> addAll(List<BookingDto> bookingDtos, Long owner);
+
     BookingDtoResponse changeStatus(Long id, Boolean approved, Long userId);
 
+    List<BookingDecisionResultDto> changeStatuses(List<BookingDecisionDto> decisions, Long userId);
+
     BookingDtoResponse getBooking(Long userId, Long bookingId);
 
     List<BookingDtoResponse> getAllByBookers(Long userId, String state, Integer from, Integer size);
 
+    BookingPageDto getPageByBooker(Long userId, String state, String after, Integer size);
+
     List<BookingDtoResponse> getAllByOwner(Long ownerId, String state, Integer from, Integer size);
 
+    BookingPageDto getPageByOwner(Long ownerId, String state, String after, Integer size);
+
     List<Booking> getAllByItemId(Long id);
 
     List<Booking> getAllByItemIdIn(List<Long> itemIds);
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class StateFilter {
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final List<BookingStatusEnum> ANY_STATUS = List.of(BookingStatusEnum.values());
+
+    private final LocalDateTime startAfter;
+    private final LocalDateTime startBefore;
+    private final LocalDateTime endAfter;
+    private final LocalDateTime endBefore;
+    private final List<BookingStatusEnum> statuses;
+
+    public static StateFilter of(State state, LocalDateTime now) {
+        switch (state) {
+            case CURRENT:
+                return new StateFilter(MIN_DATE, now, now, MAX_DATE, ANY_STATUS);
+            case PAST:
+                return new StateFilter(MIN_DATE, MAX_DATE, MIN_DATE, now, ANY_STATUS);
+            case FUTURE:
+                return new StateFilter(now, MAX_DATE, MIN_DATE, MAX_DATE, ANY_STATUS);
+            case WAITING:
+                return new StateFilter(now, MAX_DATE, MIN_DATE, MAX_DATE, List.of(BookingStatusEnum.WAITING));
+            case REJECTED:
+                return new StateFilter(now, MAX_DATE, MIN_DATE, MAX_DATE, List.of(BookingStatusEnum.REJECTED));
+            default:
+                return new StateFilter(MIN_DATE, MAX_DATE, MIN_DATE, MAX_DATE, ANY_STATUS);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingCreationResultDto {
+    private Long itemId;
+    private BookingDtoResponse booking;
+    private String error;
+}
@@ -3,8 +3,13 @@ package ru.practicum.shareit.booking.mapper;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemMapper.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class BookingMapper {
     public static Booking toBookingDto(BookingDto bookingDto) {
@@ -28,4 +33,18 @@ public class BookingMapper {
                 booking.getStatus()
         );
     }
+
+    public static BookingDtoResponse toBookingDto(Booking booking) {
+        return toBookingDto(booking, UserMapper.toUserDto(booking.getBooker()), ItemMapper.toItemDto(booking.getItem()));
+    }
+
+    public static List<BookingDtoResponse> mapToBookingDto(Iterable<Booking> bookings) {
+        List<BookingDtoResponse> result = new ArrayList<>();
+
+        for (Booking booking : bookings) {
+            result.add(toBookingDto(booking));
+        }
+
+        return result;
+    }
 }
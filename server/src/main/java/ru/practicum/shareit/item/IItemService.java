@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForBooking;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface IItemService {
@@ -14,13 +17,17 @@ public interface IItemService {
 
     ItemDto get(Long itemId);
 
+    List<ItemDto> getAllByIds(Collection<Long> itemIds);
+
     void deleted(Long itemId);
 
     List<ItemDtoForBooking> getItems(Long userId);
 
-    List<ItemDto> searchItem(String text);
+    List<ItemDto> searchItem(String text, Integer from, Integer size);
 
     ItemDtoForBooking getItemDtoForBooking(Long id, Long ownerId);
 
     CommentDto addComment(CommentDto request, Long userId, Long itemId);
+
+    List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemBookingSummary {
+    public static final ItemBookingSummary EMPTY = new ItemBookingSummary(null, null, null, null);
+
+    private final BookingDto lastBooking;
+    private final LocalDateTime lastEnd;
+    private final BookingDto nextBooking;
+    private final LocalDateTime nextStart;
+
+    public boolean isActual(LocalDateTime dateTime) {
+        return nextStart == null || dateTime.isBefore(nextStart);
+    }
+
+    public ItemBookingSummary withApproved(Booking booking, LocalDateTime dateTime) {
+        BookingDto bookingDto = BookingDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBooker().getId())
+                .build();
+        if (booking.getStart().isBefore(dateTime)) {
+            if (lastEnd == null || booking.getEnd().isAfter(lastEnd)) {
+                return new ItemBookingSummary(bookingDto, booking.getEnd(), nextBooking, nextStart);
+            }
+        } else if (booking.getStart().isAfter(dateTime)) {
+            if (nextStart == null || booking.getStart().isBefore(nextStart)) {
+                return new ItemBookingSummary(lastBooking, lastEnd, bookingDto, booking.getStart());
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ItemBookingSummaryStore {
+    // Same bound as the users cache: items that fall out are loaded again on their next view
+    private static final long MAXIMUM_SIZE = 10_000;
+
+    private final BookingRepository bookingRepository;
+
+    private final ConcurrentMap<Long, ItemBookingSummary> summaries = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .<Long, ItemBookingSummary>build()
+            .asMap();
+    private final AtomicLong version = new AtomicLong();
+
+    public ItemBookingSummary get(Long itemId) {
+        return getAll(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, ItemBookingSummary> getAll(Collection<Long> itemIds) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary != null && summary.isActual(dateTime)) {
+                result.put(itemId, summary);
+            } else {
+                missing.add(itemId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long loadedVersion = version.get();
+        Map<Long, ItemBookingSummary> loaded = load(missing, dateTime);
+        for (Long itemId : missing) {
+            ItemBookingSummary summary = loaded.getOrDefault(itemId, ItemBookingSummary.EMPTY);
+            result.put(itemId, summary);
+            summaries.compute(itemId, (id, current) -> version.get() == loadedVersion ? summary : current);
+        }
+        return result;
+    }
+
+    public void onApproved(Booking booking) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        version.incrementAndGet();
+        summaries.computeIfPresent(booking.getItem().getId(), (id, summary) -> summary.withApproved(booking, dateTime));
+    }
+
+    public void evict(Long itemId) {
+        version.incrementAndGet();
+        summaries.remove(itemId);
+    }
+
+    private Map<Long, ItemBookingSummary> load(List<Long> itemIds, LocalDateTime dateTime) {
+        Map<Long, ItemBookingSummary> loaded = new HashMap<>();
+        for (BookingShort booking : bookingRepository.findLastAndNext(itemIds, dateTime)) {
+            ItemBookingSummary summary = loaded.getOrDefault(booking.getItemId(), ItemBookingSummary.EMPTY);
+            BookingDto bookingDto = BookingDto.builder()
+                    .id(booking.getId())
+                    .bookerId(booking.getBookerId())
+                    .build();
+            if (BookingShort.LAST.equals(booking.getKind())) {
+                summary = new ItemBookingSummary(bookingDto, booking.getEndDate(), summary.getNextBooking(), summary.getNextStart());
+            } else {
+                summary = new ItemBookingSummary(summary.getLastBooking(), summary.getLastEnd(), bookingDto, booking.getStartDate());
+            }
+            loaded.put(booking.getItemId(), summary);
+        }
+        return loaded;
+    }
+}
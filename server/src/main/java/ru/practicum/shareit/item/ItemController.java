@@ -2,11 +2,15 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.exception.InvalidStatusException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForBooking;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -62,9 +66,14 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItem(@RequestParam String text) {
+    public List<ItemDto> searchItem(@RequestParam String text,
+                                    @RequestParam(value = "from", defaultValue = "0", required = false) Integer from,
+                                    @RequestParam(value = "size", defaultValue = "10", required = false) Integer size) {
         log.info("Поиск предмета");
-        List<ItemDto> itemDtoReady = itemService.searchItem(text);
+        if (from < 0 || size <= 0) {
+            throw new InvalidStatusException("Неверно указан параметр");
+        }
+        List<ItemDto> itemDtoReady = itemService.searchItem(text, from, size);
         log.info("Отправлен ответ " + itemDtoReady);
         return itemDtoReady;
     }
@@ -75,4 +84,14 @@ public class ItemController {
         log.info("Добавление комментария");
         return itemService.addComment(request, userId, itemId);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilitySlotDto> getAvailability(@PathVariable Long itemId,
+                                                     @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime to) {
+        log.info("Запрос свободных слотов предмета " + itemId);
+        List<AvailabilitySlotDto> slots = itemService.getAvailability(itemId, from, to);
+        log.info("Отправлен ответ " + slots);
+        return slots;
+    }
 }
@@ -10,8 +10,6 @@ import java.util.List;
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerOrderById(Long ownerId);
 
-    List<Item> findAllByNameOrDescriptionContainingIgnoreCase(String text, String text1);
-
     List<Item> findAllByRequestIdIn(List<Long> id);
 
     List<Item> findAllByRequestId(Long id);
@@ -0,0 +1,232 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemMapper.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final long NAME_MATCH = 1L << 32;
+    private static final long ID_MASK = NAME_MATCH - 1;
+
+    private final ItemRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // Writes made while rebuild() reads the items; null when no rebuild is running
+    private Map<Long, ItemDto> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index();
+        List<Item> all;
+        try {
+            all = repository.findAll();
+            for (Item item : all) {
+                rebuilt.index(ItemMapper.toItemDto(item));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach((itemId, itemDto) -> {
+                rebuilt.unindex(itemId);
+                if (itemDto != null) {
+                    rebuilt.index(itemDto);
+                }
+            });
+            pending = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен, предметов: {}", all.size());
+    }
+
+    public void put(Item item) {
+        ItemDto itemDto = ItemMapper.toItemDto(item);
+        lock.writeLock().lock();
+        try {
+            index.unindex(item.getId());
+            index.index(itemDto);
+            if (pending != null) {
+                pending.put(item.getId(), itemDto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            index.unindex(itemId);
+            if (pending != null) {
+                pending.put(itemId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            BitSet candidates = (BitSet) current.available.clone();
+            for (String gram : grams(query, Math.min(GRAM_SIZE, query.length()))) {
+                BitSet posting = current.postings.get(gram);
+                if (posting == null) {
+                    return new ArrayList<>();
+                }
+                candidates.and(posting);
+            }
+
+            int found = candidates.cardinality();
+            if (from >= found) {
+                return new ArrayList<>();
+            }
+            // Clamped to the candidates, so neither from + size nor the queue capacity can grow past the index
+            int limit = (int) Math.min((long) from + size, found);
+            PriorityQueue<Long> top = new PriorityQueue<>(limit + 1);
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                ItemDto itemDto = current.items.get(ordinal);
+                long rank;
+                if (normalize(itemDto.getName()).contains(query)) {
+                    rank = NAME_MATCH | itemDto.getId();
+                } else if (normalize(itemDto.getDescription()).contains(query)) {
+                    rank = itemDto.getId();
+                } else {
+                    continue;
+                }
+                top.offer(rank);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<ItemDto> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(current.byId(top.poll() & ID_MASK));
+            }
+            Collections.reverse(result);
+            return result.subList(Math.min(from, result.size()), result.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Postings are bitsets over dense ordinals rather than item ids, so their size follows the number of indexed items
+     * and not the id range. Ordinals of removed items are reused.
+     */
+    private static class Index {
+        private final Map<String, BitSet> postings = new HashMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final List<ItemDto> items = new ArrayList<>();
+        private final BitSet free = new BitSet();
+        private final BitSet available = new BitSet();
+
+        ItemDto byId(long itemId) {
+            return items.get(ordinals.get(itemId));
+        }
+
+        void index(ItemDto itemDto) {
+            if (itemDto.getId() > ID_MASK) {
+                throw new IllegalArgumentException("Идентификатор предмета вне диапазона индекса: " + itemDto.getId());
+            }
+            int ordinal = free.isEmpty() ? items.size() : free.nextSetBit(0);
+            if (ordinal == items.size()) {
+                items.add(itemDto);
+            } else {
+                free.clear(ordinal);
+                items.set(ordinal, itemDto);
+            }
+            ordinals.put(itemDto.getId(), ordinal);
+            available.set(ordinal, Boolean.TRUE.equals(itemDto.getAvailable()));
+            for (String gram : itemGrams(itemDto)) {
+                postings.computeIfAbsent(gram, key -> new BitSet()).set(ordinal);
+            }
+        }
+
+        void unindex(Long itemId) {
+            Integer ordinal = ordinals.remove(itemId);
+            if (ordinal == null) {
+                return;
+            }
+            ItemDto itemDto = items.set(ordinal, null);
+            free.set(ordinal);
+            available.clear(ordinal);
+            for (String gram : itemGrams(itemDto)) {
+                BitSet posting = postings.get(gram);
+                if (posting != null) {
+                    posting.clear(ordinal);
+                    if (posting.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> itemGrams(ItemDto itemDto) {
+        Set<String> result = new HashSet<>();
+        for (String field : List.of(normalize(itemDto.getName()), normalize(itemDto.getDescription()))) {
+            for (int size = 1; size <= GRAM_SIZE; size++) {
+                result.addAll(grams(field, size));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> grams(String text, int size) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + size <= text.length(); i++) {
+            result.add(text.substring(i, i + size));
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
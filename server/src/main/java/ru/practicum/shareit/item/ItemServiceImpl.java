@@ -5,9 +5,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatusEnum;
-import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentRepository;
@@ -16,6 +16,7 @@ import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.exception.InvalidStatusException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.ItemMapper.ItemMapper;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForBooking;
 import ru.practicum.shareit.item.model.Item;
@@ -25,9 +26,11 @@ import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -41,6 +44,12 @@ public class ItemServiceImpl implements IItemService {
 
     private final CommentRepository commentRepository;
 
+    private final ItemBookingSummaryStore bookingSummaryStore;
+
+    private final ItemSearchIndex searchIndex;
+
+    private final BookingIntervalIndex intervalIndex;
+
     @Override
     public ItemDto add(ItemDto itemDto, Long userId) {
         Item item = ItemMapper.toDtoItem(itemDto, userId);
@@ -48,6 +57,7 @@ public class ItemServiceImpl implements IItemService {
             throw new UserNotFoundException("Пользователь не найден");
         }
         Item newItem = repository.save(item);
+        searchIndex.put(newItem);
         return ItemMapper.toItemDto(newItem);
     }
 
@@ -68,6 +78,7 @@ public class ItemServiceImpl implements IItemService {
             item.setName(itemUp.getName());
         }
         repository.save(item);
+        searchIndex.put(item);
 
         return ItemMapper.toItemDto(item);
     }
@@ -79,39 +90,46 @@ public class ItemServiceImpl implements IItemService {
         return ItemMapper.toItemDto(item);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getAllByIds(Collection<Long> itemIds) {
+        return repository.findAllById(itemIds).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+    }
+
     @Override
     public void deleted(Long itemId) {
         repository.deleteById(itemId);
+        bookingSummaryStore.evict(itemId);
+        searchIndex.remove(itemId);
+        intervalIndex.removeItem(itemId);
     }
 
     @Override
     public List<ItemDtoForBooking> getItems(Long userId) {
         List<ItemDtoForBooking> list = repository.findAllByOwnerOrderById(userId).stream().map(ItemMapper::toDtoItemForBooking).collect(Collectors.toList());
-        List<Long> itemsId = list.stream()
-                .map(ItemDtoForBooking::getId)
-                .collect(Collectors.toList());
-        List<Booking> bookingList = bookingRepository.findAllByItemIdIn(itemsId);
-
-        return list.stream().map(itemDtoForBooking -> setLastAndNext(bookingList, itemDtoForBooking, userId)).collect(Collectors.toList());
-
+        return setLastAndNext(list, userId);
     }
 
     @Override
-    public List<ItemDto> searchItem(String text) {
+    public List<ItemDto> searchItem(String text, Integer from, Integer size) {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return repository.findAllByNameOrDescriptionContainingIgnoreCase(text, text).stream().filter(Item::getAvailable).map(ItemMapper::toItemDto).collect(Collectors.toList());
+        return searchIndex.search(text, from, size);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemDtoForBooking getItemDtoForBooking(Long id, Long ownerId) {
         ItemDtoForBooking itemDtoForBooking = ItemMapper.toDtoItemForBooking(repository.findById(id).orElseThrow(() -> new UserNotFoundException("Предмет не найден")));
-        List<Booking> bookings = bookingRepository.findAllByItemId(id);
         itemDtoForBooking.setComments(commentRepository.findAllByItemId(id).stream().map(CommentMapper::mapToDto)
                 .collect(Collectors.toList()));
-        return setLastAndNext(bookings, itemDtoForBooking, ownerId);
+        if (itemDtoForBooking.getOwner().equals(ownerId)) {
+            ItemBookingSummary summary = bookingSummaryStore.get(id);
+            itemDtoForBooking.setLastBooking(summary.getLastBooking());
+            itemDtoForBooking.setNextBooking(summary.getNextBooking());
+        }
+        return itemDtoForBooking;
     }
 
     public CommentDto addComment(CommentDto request, Long userId, Long itemId) {
@@ -137,35 +155,51 @@ public class ItemServiceImpl implements IItemService {
         return CommentMapper.mapToDto(savedComment);
     }
 
+    @Override
     @Transactional(readOnly = true)
-    private ItemDtoForBooking setLastAndNext(List<Booking> bookings, ItemDtoForBooking itemDtoForBooking, Long ownerId) {
-        LocalDateTime dateTime = LocalDateTime.now();
-        bookings
-                .stream()
-                .filter(booking -> Objects.equals(booking.getItem().getId(), itemDtoForBooking.getId()))
-                .sorted(Comparator.comparing(Booking::getEnd).reversed())
-                .filter(booking -> booking.getStatus().equals(BookingStatusEnum.APPROVED))
-                .filter(booking -> booking.getStart().isBefore(dateTime))
-                .filter(ItemDtoForBooking -> itemDtoForBooking.getOwner().equals(ownerId)).filter(booking -> booking.getItem().getId().equals(itemDtoForBooking.getId()))
-                .limit(1)
-                .findAny()
-                .ifPresent(booking -> itemDtoForBooking.setLastBooking(BookingDto.builder()
-                        .id(booking.getId())
-                        .bookerId(booking.getBooker().getId())
-                        .build()));
-        bookings
-                .stream()
-                .filter(booking -> Objects.equals(booking.getItem().getId(), itemDtoForBooking.getId()))
-                .sorted(Comparator.comparing(Booking::getStart))
-                .filter(booking -> booking.getStatus().equals(BookingStatusEnum.APPROVED))
-                .filter(booking -> booking.getStart().isAfter(dateTime))
-                .filter(ItemDtoForBooking -> itemDtoForBooking.getOwner().equals(ownerId)).filter(booking -> booking.getItem().getId().equals(itemDtoForBooking.getId()))
-                .limit(1)
-                .findAny()
-                .ifPresent(booking -> itemDtoForBooking.setNextBooking(BookingDto.builder()
-                        .id(booking.getId())
-                        .bookerId(booking.getBooker().getId())
-                        .build()));
-        return itemDtoForBooking;
+    public List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidStatusException("Начало периода должно быть раньше конца");
+        }
+        if (!repository.existsById(itemId)) {
+            throw new UserNotFoundException("Предмет не найден");
+        }
+        List<Booking> bookings = bookingRepository.findAllByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(itemId,
+                List.of(BookingStatusEnum.APPROVED, BookingStatusEnum.WAITING), to, from);
+
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Booking booking : bookings) {
+            if (booking.getStart().isAfter(freeFrom)) {
+                slots.add(new AvailabilitySlotDto(freeFrom, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(freeFrom)) {
+                freeFrom = booking.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            slots.add(new AvailabilitySlotDto(freeFrom, to));
+        }
+        return slots;
+    }
+
+    private List<ItemDtoForBooking> setLastAndNext(List<ItemDtoForBooking> items, Long ownerId) {
+        List<Long> itemsId = items.stream()
+                .filter(item -> item.getOwner().equals(ownerId))
+                .map(ItemDtoForBooking::getId)
+                .collect(Collectors.toList());
+        if (itemsId.isEmpty()) {
+            return items;
+        }
+        Map<Long, ItemBookingSummary> summaries = bookingSummaryStore.getAll(itemsId);
+
+        for (ItemDtoForBooking item : items) {
+            ItemBookingSummary summary = summaries.get(item.getId());
+            if (summary != null) {
+                item.setLastBooking(summary.getLastBooking());
+                item.setNextBooking(summary.getNextBooking());
+            }
+        }
+        return items;
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.query-budget")
+public class QueryBudgetProperties {
+    private int defaultBudget = 10;
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String method, String endpoint) {
+        return endpoints.getOrDefault(method + " " + endpoint, defaultBudget);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Counts JDBC statements executed by the current thread between {@link #start()} and {@link #close()}.
+ * Counters nest: an outer counter (for example one opened by a test around a MockMvc call) also sees the statements
+ * counted by the request filter inside it.
+ *
+ * <pre>
+ * try (QueryCounter counter = QueryCounter.start()) {
+ *     mockMvc.perform(get("/requests").header("X-Sharer-User-Id", 1));
+ *     counter.assertQueryCount(3);
+ * }
+ * </pre>
+ */
+@Getter
+public class QueryCounter implements AutoCloseable {
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    @Getter(AccessLevel.NONE)
+    private final QueryCounter parent;
+    private int count;
+    private long nanos;
+
+    private QueryCounter(QueryCounter parent) {
+        this.parent = parent;
+    }
+
+    public static QueryCounter start() {
+        QueryCounter counter = new QueryCounter(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    public void assertQueryCount(int max) {
+        if (count > max) {
+            throw new AssertionError("Выполнено " + count + " SQL-запросов, допустимо не больше " + max);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    static void record(long elapsedNanos) {
+        for (QueryCounter counter = CURRENT.get(); counter != null; counter = counter.parent) {
+            counter.count++;
+            counter.nanos += elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+class QueryCountingListener implements QueryExecutionListener {
+    private static final ThreadLocal<Long> STARTED = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        STARTED.set(System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = STARTED.get();
+        STARTED.remove();
+        QueryCounter.record(started == null ? 0 : System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class QueryMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry registry;
+    private final QueryBudgetProperties budgetProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter counter = QueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.close();
+            String endpoint = RequestEndpoint.of(request);
+            Tags tags = Tags.of(
+                    "method", request.getMethod(),
+                    "uri", endpoint,
+                    "status", String.valueOf(response.getStatus()));
+            DistributionSummary.builder("shareit.http.queries")
+                    .description("Количество SQL-запросов на один HTTP-запрос")
+                    .tags(tags)
+                    .register(registry)
+                    .record(counter.getCount());
+            Timer.builder("shareit.http.query.time")
+                    .description("Суммарное время SQL-запросов на один HTTP-запрос")
+                    .tags(tags)
+                    .register(registry)
+                    .record(counter.getNanos(), TimeUnit.NANOSECONDS);
+
+            int budget = budgetProperties.budgetFor(request.getMethod(), endpoint);
+            if (counter.getCount() > budget) {
+                log.warn("Превышен бюджет SQL-запросов: {} {} выполнил {} запросов при бюджете {}",
+                        request.getMethod(), endpoint, counter.getCount(), budget);
+                Counter.builder("shareit.http.queries.over.budget")
+                        .description("HTTP-запросы, превысившие бюджет SQL-запросов")
+                        .tags(tags)
+                        .register(registry)
+                        .increment();
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ServiceMetricsAspect {
+    private final MeterRegistry registry;
+
+    @Around("execution(* ru.practicum.shareit.booking.IBookingService.*(..))"
+            + " || execution(* ru.practicum.shareit.item.IItemService.*(..))"
+            + " || execution(* ru.practicum.shareit.user.IUserService.*(..))"
+            + " || execution(* ru.practicum.shareit.request.IItemRequestService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("shareit.service")
+                    .description("Время выполнения методов сервисов")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("uri", RequestEndpoint.current())
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+}
@@ -2,13 +2,18 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequestId(Long userId);
+    @Query("select r from ItemRequest r join fetch r.request where r.request.id = :userId")
+    List<ItemRequest> findAllByRequestId(@Param("userId") Long userId);
 
-    List<ItemRequest> findAllByRequestIdNot(Long userId, Pageable pageable);
+    // Ordered here rather than by the Pageable, so that the plan walks ix_item_requests_created and stops at the page
+    @Query("select r from ItemRequest r join fetch r.request where r.request.id <> :userId order by r.created desc")
+    List<ItemRequest> findAllByRequestIdNot(@Param("userId") Long userId, Pageable pageable);
 }
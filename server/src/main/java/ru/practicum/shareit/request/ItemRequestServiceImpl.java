@@ -3,7 +3,6 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
@@ -13,8 +12,9 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,10 +46,7 @@ public class ItemRequestServiceImpl implements IItemRequestService {
     public List<ItemRequestDto> getItemRequestByUserId(Long userId) {
         userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
         List<ItemRequestDto> itemRequestDtos = itemRequestRepository.findAllByRequestId(userId).stream().map(ItemRequestMapper::toItemRequestDto).collect(Collectors.toList());
-        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
-            itemRequestDto.setItems(itemRepository.findAllByRequestId(itemRequestDto.getId()));
-        }
-
+        setItems(itemRequestDtos);
         return itemRequestDtos;
     }
 
@@ -68,15 +65,11 @@ public class ItemRequestServiceImpl implements IItemRequestService {
         if (from != 0) {
             page = from / size;
         }
-        Pageable pageable = PageRequest.of(page, size, Sort.by("created").descending());
+        Pageable pageable = PageRequest.of(page, size);
 
         List<ItemRequestDto> requests = itemRequestRepository.findAllByRequestIdNot(userId, pageable).stream().map(ItemRequestMapper::toItemRequestDto).collect(Collectors.toList());
 
-        List<Item> items = itemRepository.findAllByRequestIdIn(requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList()));
-        for (ItemRequestDto itemRequest : requests) {
-            List<Item> itemRequests = items.stream().filter(item -> Objects.equals(itemRequest.getId(), item.getRequestId())).collect(Collectors.toList());
-            itemRequest.setItems(itemRequests);
-        }
+        setItems(requests);
         return requests;
     }
 
@@ -87,4 +80,16 @@ public class ItemRequestServiceImpl implements IItemRequestService {
         itemRequestDto.setItems(itemRepository.findAllByRequestId(itemRequestDto.getId()));
         return itemRequestDto;
     }
+
+    private void setItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Item>> items = itemRepository.findAllByRequestIdIn(requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        for (ItemRequestDto itemRequest : requests) {
+            itemRequest.setItems(items.getOrDefault(itemRequest.getId(), Collections.emptyList()));
+        }
+    }
 }
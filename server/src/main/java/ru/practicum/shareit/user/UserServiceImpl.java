@@ -2,9 +2,14 @@ package ru.practicum.shareit.user;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -16,11 +21,14 @@ import java.util.List;
 @Service
 @Primary
 public class UserServiceImpl implements IUserService {
+    private static final String USERS_CACHE = "users";
     private final UserRepository repository;
+    private final BookingIntervalIndex intervalIndex;
 
     @Autowired
-    public UserServiceImpl(UserRepository repository) {
+    public UserServiceImpl(UserRepository repository, BookingIntervalIndex intervalIndex) {
         this.repository = repository;
+        this.intervalIndex = intervalIndex;
     }
 
     @Override
@@ -32,6 +40,7 @@ public class UserServiceImpl implements IUserService {
 
     @Override
     @Transactional
+    @CacheEvict(value = USERS_CACHE, key = "#userId")
     public UserDto update(UserDto userDto, Long userId) {
         User userUpdated = UserMapper.toDtoUser(userDto);
         User user = repository.getReferenceById(userId);
@@ -47,6 +56,7 @@ public class UserServiceImpl implements IUserService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = USERS_CACHE, key = "#userId")
     public UserDto get(Long userId) {
         User user = repository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
         return UserMapper.toUserDto(user);
@@ -55,8 +65,16 @@ public class UserServiceImpl implements IUserService {
 
     @Override
     @Transactional()
+    @CacheEvict(value = USERS_CACHE, key = "#userId")
     public void deleted(Long userId) {
         repository.deleteById(userId);
+        // The database drops the user's items and bookings along with the user, the index follows once that is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                intervalIndex.removeUser(userId);
+            }
+        });
     }
 
     @Override
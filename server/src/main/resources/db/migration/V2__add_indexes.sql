@@ -0,0 +1,13 @@
+ALTER TABLE bookings ADD CONSTRAINT pk_bookings PRIMARY KEY (id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_status_end ON bookings (status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_item_requests_requesor ON item_requests (requesor_id, date_created DESC);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_item_requests_created ON item_requests (date_created DESC);
@@ -0,0 +1,145 @@
+package ru.practicum.shareit;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatusEnum;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query declared on the repositories against the Flyway schema and checks with EXPLAIN that H2 answers
+ * it from an index.
+ */
+@DataJpaTest
+class RepositoryExplainTest {
+    private static final List<QueryInfo> EXECUTED = Collections.synchronizedList(new ArrayList<>());
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 1, 12, 0);
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private DataSource dataSource;
+
+    static Stream<Arguments> queries() {
+        return Stream.of(BookingRepository.class, ItemRepository.class, ItemRequestRepository.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                        .map(method -> Arguments.of(repository.getSimpleName() + "." + method.getName(), repository, method)));
+    }
+
+    @BeforeEach
+    void setUp() {
+        EXECUTED.clear();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void usesIndex(String name, Class<?> repository, Method method) throws Exception {
+        Object[] arguments = Arrays.stream(method.getParameters()).map(RepositoryExplainTest::argument).toArray();
+        method.invoke(context.getBean(repository), arguments);
+
+        List<QueryInfo> executed = new ArrayList<>(EXECUTED);
+        assertThat(executed).as("SQL выполненный %s", name).isNotEmpty();
+        for (QueryInfo query : executed) {
+            String plan = explain(query);
+            assertThat(plan).as("План %s:%n%s", name, plan).doesNotContainIgnoringCase(".tableScan");
+        }
+    }
+
+    private String explain(QueryInfo query) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getQuery())) {
+            if (!query.getParametersList().isEmpty()) {
+                for (ParameterSetOperation operation : query.getParametersList().get(0)) {
+                    operation.getMethod().invoke(statement, operation.getArgs());
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static Object argument(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type == Long.class) {
+            return 1L;
+        }
+        if (type == LocalDateTime.class) {
+            return NOW;
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            Object element = ((ParameterizedType) parameter.getParameterizedType()).getActualTypeArguments()[0];
+            return element == BookingStatusEnum.class
+                    ? List.of(BookingStatusEnum.APPROVED, BookingStatusEnum.WAITING)
+                    : List.of(1L, 2L);
+        }
+        throw new IllegalArgumentException("Нет тестового значения для " + parameter);
+    }
+
+    @TestConfiguration
+    static class QueryCaptureConfig {
+        @Bean
+        static BeanPostProcessor queryCapturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .afterQuery((execution, queries) -> EXECUTED.addAll(queries))
+                            .build();
+                }
+            };
+        }
+    }
+}
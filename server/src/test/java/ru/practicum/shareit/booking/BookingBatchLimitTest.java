@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingBatchLimitTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rejectsOversizedCreation() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<BookingDto> bookings = IntStream.rangeClosed(0, BookingServiceImpl.MAX_BATCH_SIZE)
+                .mapToObj(i -> BookingDto.builder().itemId((long) i).start(start).end(start.plusDays(1)).build())
+                .collect(Collectors.toList());
+
+        mockMvc.perform(post("/bookings/batch").header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookings)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsEmptyCreation() throws Exception {
+        mockMvc.perform(post("/bookings/batch").header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Collections.emptyList())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsOversizedDecisions() throws Exception {
+        List<BookingDecisionDto> decisions = LongStream.rangeClosed(0, BookingServiceImpl.MAX_BATCH_SIZE)
+                .mapToObj(id -> new BookingDecisionDto(id, true))
+                .collect(Collectors.toList());
+
+        mockMvc.perform(patch("/bookings/batch").header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsIncompleteDecision() throws Exception {
+        mockMvc.perform(patch("/bookings/batch").header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new BookingDecisionDto(1L, null)))))
+                .andExpect(status().isBadRequest());
+    }
+}
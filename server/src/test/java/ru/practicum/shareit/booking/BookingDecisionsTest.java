@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemBookingSummaryStore;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingDecisionsTest {
+    @Autowired
+    private IBookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @SpyBean
+    private ItemBookingSummaryStore summaryStore;
+
+    private User owner;
+    private User booker;
+    private User stranger;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", UUID.randomUUID() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", UUID.randomUUID() + "@mail.ru"));
+        stranger = userRepository.save(new User(null, "stranger", UUID.randomUUID() + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker,
+                BookingStatusEnum.WAITING));
+    }
+
+    // Decisions are committed, so rows are deleted rather than rolled back
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteById(booking.getId());
+        itemRepository.deleteById(item.getId());
+        intervalIndex.removeItem(item.getId());
+        userRepository.deleteAllById(List.of(owner.getId(), booker.getId(), stranger.getId()));
+    }
+
+    @Test
+    void onlyOwnerDecides() {
+        List<BookingDecisionResultDto> results = bookingService.changeStatuses(
+                List.of(new BookingDecisionDto(booking.getId(), true)), stranger.getId());
+
+        assertThat(results).singleElement()
+                .satisfies(result -> assertThat(result.getError()).isEqualTo("Нет доступа к букингу."));
+        assertThat(bookingRepository.findById(booking.getId()))
+                .hasValueSatisfying(saved -> assertThat(saved.getStatus()).isEqualTo(BookingStatusEnum.WAITING));
+        assertThat(isFree()).isTrue();
+    }
+
+    @Test
+    void appliesSideEffectsAfterCommit() {
+        List<BookingDecisionResultDto> results = bookingService.changeStatuses(
+                List.of(new BookingDecisionDto(booking.getId(), true)), owner.getId());
+
+        assertThat(results).singleElement()
+                .satisfies(result -> assertThat(result.getItemId()).isEqualTo(booking.getItem().getId()));
+        assertThat(isFree()).isFalse();
+        verify(summaryStore).onApproved(any());
+    }
+
+    @Test
+    void releasesReservationOnRollback() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.changeStatuses(List.of(new BookingDecisionDto(booking.getId(), true)), owner.getId());
+            assertThat(isFree()).isFalse();
+            status.setRollbackOnly();
+        });
+
+        assertThat(bookingRepository.findById(booking.getId()))
+                .hasValueSatisfying(saved -> assertThat(saved.getStatus()).isEqualTo(BookingStatusEnum.WAITING));
+        assertThat(isFree()).isTrue();
+        verify(summaryStore, never()).onApproved(any());
+    }
+
+    private boolean isFree() {
+        return intervalIndex.isFree(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    private BookingRepository repository;
+    private BookingIntervalIndex index;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(repository);
+        item = new Item(1L, "Дрель", "Простая дрель", true, 10L, null);
+    }
+
+    @Test
+    void keepsApprovedRowsWithTheSameStart() {
+        Booking shorter = booking(1L, START, START.plusHours(1));
+        Booking longer = booking(2L, START, START.plusHours(5));
+        approved(shorter, longer);
+
+        index.rebuild();
+        index.release(shorter);
+
+        assertThat(index.isFree(item.getId(), START.plusHours(2), START.plusHours(3))).isFalse();
+    }
+
+    @Test
+    void findsConflictBehindOverlappingRows() {
+        approved(booking(1L, START, START.plusHours(10)), booking(2L, START.plusHours(1), START.plusHours(2)));
+
+        index.rebuild();
+
+        assertThat(index.isFree(item.getId(), START.plusHours(5), START.plusHours(6))).isFalse();
+        assertThatThrownBy(() -> index.reserve(booking(3L, START.plusHours(5), START.plusHours(6))))
+                .isInstanceOf(ItemNotAvailableException.class);
+        assertThat(index.isFree(item.getId(), START.plusHours(10), START.plusHours(11))).isTrue();
+    }
+
+    @Test
+    void rebuildKeepsReservationsMissingFromTheSnapshot() {
+        approved();
+        Booking inFlight = booking(1L, START, START.plusHours(1));
+        assertThat(index.reserve(inFlight)).isTrue();
+
+        index.rebuild();
+
+        assertThat(index.isFree(item.getId(), START, START.plusHours(1))).isFalse();
+        assertThat(index.reserve(inFlight)).isFalse();
+    }
+
+    @Test
+    void prunesFinishedIntervalsOnCheck() {
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        Booking finished = booking(1L, past, past.plusHours(1));
+        approved(finished);
+        index.rebuild();
+
+        assertThat(index.isFree(item.getId(), START, START.plusHours(1))).isTrue();
+
+        // Still known to the index, the finished booking would be reported as already reserved
+        assertThat(index.reserve(finished)).isTrue();
+    }
+
+    @Test
+    void forgetsDeletedItem() {
+        approved(booking(1L, START, START.plusHours(1)));
+        index.rebuild();
+
+        index.removeItem(item.getId());
+
+        assertThat(index.isFree(item.getId(), START, START.plusHours(1))).isTrue();
+    }
+
+    @Test
+    void forgetsDeletedUsersBookingsAndItems() {
+        Item other = new Item(2L, "Пила", "Ручная пила", true, 20L, null);
+        Booking byDeleted = booking(1L, START, START.plusHours(1));
+        byDeleted.setBooker(new User(30L, "booker", "booker@mail.ru"));
+        Booking byOther = booking(2L, START.plusHours(2), START.plusHours(3));
+        byOther.setBooker(new User(40L, "other", "other@mail.ru"));
+        Booking ofOwned = new Booking(3L, START, START.plusHours(1), other, byOther.getBooker(),
+                BookingStatusEnum.APPROVED);
+        approved(byDeleted, byOther, ofOwned);
+        index.rebuild();
+
+        index.removeUser(30L);
+        index.removeUser(other.getOwner());
+
+        assertThat(index.isFree(item.getId(), START, START.plusHours(1))).isTrue();
+        assertThat(index.isFree(item.getId(), START.plusHours(2), START.plusHours(3))).isFalse();
+        assertThat(index.isFree(other.getId(), START, START.plusHours(1))).isTrue();
+    }
+
+    private void approved(Booking... bookings) {
+        when(repository.findAllByStatusAndEndIsAfter(eq(BookingStatusEnum.APPROVED), any())).thenReturn(List.of(bookings));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return new Booking(id, start, end, item, null, BookingStatusEnum.APPROVED);
+    }
+}
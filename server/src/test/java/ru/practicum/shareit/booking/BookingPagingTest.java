@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingPagingTest {
+    private static final int ROWS = 5;
+
+    @Autowired
+    private IBookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    // Newest first, as the listings return them
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", UUID.randomUUID() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", UUID.randomUUID() + "@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    item, booker, BookingStatusEnum.WAITING));
+            ids.add(0, booking.getId());
+        }
+    }
+
+    @Test
+    void bookerPageStartsAtOffset() {
+        List<BookingDtoResponse> page = bookingService.getAllByBookers(booker.getId(), "ALL", 3, 2);
+
+        assertThat(ids(page)).containsExactly(ids.get(3), ids.get(4));
+    }
+
+    @Test
+    void ownerPageStartsAtOffset() {
+        List<BookingDtoResponse> page = bookingService.getAllByOwner(owner.getId(), "FUTURE", 1, 3);
+
+        assertThat(ids(page)).containsExactly(ids.get(1), ids.get(2), ids.get(3));
+    }
+
+    private static List<Long> ids(List<BookingDtoResponse> bookings) {
+        return bookings.stream().map(BookingDtoResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.InvalidStatusException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Several owners' requests approve the same WAITING booking at once, one by one or in batches: only one of them may
+ * win and the item must be reserved in the interval index exactly once. The threads need committed rows, so the test cannot roll back and
+ * deletes what it saved instead.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingStatusConcurrencyTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private IBookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @SpyBean
+    private BookingIntervalIndex intervalIndex;
+
+    private final AtomicInteger reservations = new AtomicInteger();
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", UUID.randomUUID() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", UUID.randomUUID() + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker,
+                BookingStatusEnum.WAITING));
+
+        doAnswer(invocation -> {
+            Object reserved = invocation.callRealMethod();
+            if (Boolean.TRUE.equals(reserved)) {
+                reservations.incrementAndGet();
+            }
+            return reserved;
+        }).when(intervalIndex).reserve(any());
+        doAnswer(invocation -> {
+            reservations.decrementAndGet();
+            return invocation.callRealMethod();
+        }).when(intervalIndex).release(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteById(booking.getId());
+        itemRepository.deleteById(item.getId());
+        intervalIndex.removeItem(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void approvesWaitingBookingOnce() throws Exception {
+        List<Future<BookingDtoResponse>> futures = runAtOnce(
+                () -> bookingService.changeStatus(booking.getId(), true, owner.getId()));
+
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<BookingDtoResponse> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(InvalidStatusException.class);
+                rejected++;
+            }
+        }
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(rejected).isEqualTo(THREADS - 1);
+
+        assertThat(bookingRepository.findById(booking.getId()))
+                .hasValueSatisfying(saved -> assertThat(saved.getStatus()).isEqualTo(BookingStatusEnum.APPROVED));
+        assertThat(reservations).hasValue(1);
+        assertThat(intervalIndex.isFree(item.getId(), booking.getStart(), booking.getEnd())).isFalse();
+    }
+
+    @Test
+    void approvesWaitingBookingOnceInBatches() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(booking.getId(), true));
+        List<Future<List<BookingDecisionResultDto>>> futures = runAtOnce(
+                () -> bookingService.changeStatuses(decisions, owner.getId()));
+
+        int approved = 0;
+        for (Future<List<BookingDecisionResultDto>> future : futures) {
+            BookingDecisionResultDto result = future.get(30, TimeUnit.SECONDS).get(0);
+            if (result.getError() == null) {
+                assertThat(result.getStatus()).isEqualTo(BookingStatusEnum.APPROVED);
+                approved++;
+            } else {
+                assertThat(result.getError()).isEqualTo("Ошибка статуса");
+            }
+        }
+
+        assertThat(approved).isEqualTo(1);
+        assertThat(bookingRepository.findById(booking.getId()))
+                .hasValueSatisfying(saved -> assertThat(saved.getStatus()).isEqualTo(BookingStatusEnum.APPROVED));
+        assertThat(reservations).hasValue(1);
+    }
+
+    private <T> List<Future<T>> runAtOnce(Callable<T> task) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return task.call();
+                }));
+            }
+            assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+            go.countDown();
+            return futures;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private ItemRepository repository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ItemRepository.class);
+        index = new ItemSearchIndex(repository);
+    }
+
+    @Test
+    void ranksNameMatchesFirstThenNewerItems() {
+        index.put(item(1L, "Дрель", "Простая"));
+        index.put(item(2_000_000_000L, "Отвертка", "Аккумуляторная дрель"));
+        index.put(item(3L, "Дрель ударная", "Мощная"));
+
+        assertThat(ids(index.search("дрель", 0, 10))).containsExactly(3L, 1L, 2_000_000_000L);
+        assertThat(ids(index.search("дрель", 1, 1))).containsExactly(1L);
+    }
+
+    @Test
+    void clampsPageToTheCandidates() {
+        index.put(item(1L, "Дрель", "Простая"));
+        index.put(item(2L, "Дрель", "Ударная"));
+
+        assertThat(ids(index.search("дрель", 1, Integer.MAX_VALUE))).containsExactly(1L);
+        assertThat(index.search("дрель", Integer.MAX_VALUE, Integer.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void reusesOrdinalsOfRemovedItems() {
+        index.put(item(1L, "Дрель", "Простая"));
+        index.put(item(2L, "Пила", "Простая"));
+        index.remove(1L);
+        index.put(item(5L, "Дрель", "Новая"));
+
+        assertThat(ids(index.search("дрель", 0, 10))).containsExactly(5L);
+        assertThat(ids(index.search("простая", 0, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void rebuildKeepsWritesMadeWhileReading() {
+        index.put(item(1L, "Дрель", "Простая"));
+        when(repository.findAll()).thenAnswer(invocation -> {
+            List<Item> snapshot = List.of(item(1L, "Дрель", "Простая"), item(2L, "Дрель", "Старая"));
+            index.put(item(3L, "Дрель", "Добавлена во время перестроения"));
+            index.remove(2L);
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertThat(ids(index.search("дрель", 0, 10))).containsExactly(3L, 1L);
+    }
+
+    private static Item item(Long id, String name, String description) {
+        return new Item(id, name, description, true, 10L, null);
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatusEnum;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the list endpoints against the SQL budgets configured in {@code shareit.query-budget}. Every list holds
+ * several rows, so a query per row shows up as a budget overrun.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetTest {
+    private static final int ROWS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryBudgetProperties budgetProperties;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", UUID.randomUUID() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", UUID.randomUUID() + "@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ROWS; i++) {
+            ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "Нужна дрель " + i, booker, now.minusHours(i)));
+            Item item = itemRepository.save(new Item(null, "Дрель " + i, "Простая дрель", true, owner.getId(), request.getId()));
+            bookingRepository.save(new Booking(null, now.minusDays(2).plusHours(i), now.minusDays(1).plusHours(i),
+                    item, booker, BookingStatusEnum.APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1).plusHours(i), now.plusDays(2).plusHours(i),
+                    item, booker, BookingStatusEnum.WAITING));
+        }
+    }
+
+    @Test
+    void ownRequestsFetchItemsInOneQuery() throws Exception {
+        try (QueryCounter counter = QueryCounter.start()) {
+            mockMvc.perform(get("/requests").header("X-Sharer-User-Id", booker.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(ROWS)))
+                    .andExpect(jsonPath("$[0].items", hasSize(1)));
+            counter.assertQueryCount(budgetProperties.budgetFor("GET", "/requests"));
+        }
+    }
+
+    @Test
+    void allRequestsFetchItemsInOneQuery() throws Exception {
+        try (QueryCounter counter = QueryCounter.start()) {
+            mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", owner.getId())
+                            .param("from", "0").param("size", String.valueOf(ROWS)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(ROWS)))
+                    .andExpect(jsonPath("$[0].items", hasSize(1)));
+            counter.assertQueryCount(budgetProperties.budgetFor("GET", "/requests/all"));
+        }
+    }
+
+    @Test
+    void bookerBookings() throws Exception {
+        try (QueryCounter counter = QueryCounter.start()) {
+            mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2 * ROWS)));
+            counter.assertQueryCount(budgetProperties.budgetFor("GET", "/bookings"));
+        }
+    }
+
+    @Test
+    void ownerBookings() throws Exception {
+        try (QueryCounter counter = QueryCounter.start()) {
+            mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2 * ROWS)));
+            counter.assertQueryCount(budgetProperties.budgetFor("GET", "/bookings/owner"));
+        }
+    }
+
+    @Test
+    void ownerItems() throws Exception {
+        try (QueryCounter counter = QueryCounter.start()) {
+            mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(ROWS)))
+                    .andExpect(jsonPath("$[0].lastBooking").exists())
+                    .andExpect(jsonPath("$[0].nextBooking").doesNotExist());
+            counter.assertQueryCount(budgetProperties.budgetFor("GET", "/items"));
+        }
+    }
+}